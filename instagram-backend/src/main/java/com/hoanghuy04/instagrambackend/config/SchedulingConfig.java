@@ -0,0 +1,16 @@
+package com.hoanghuy04.instagrambackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration.
+ * Enables @Scheduled background jobs (ranking refreshes, maintenance tasks).
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -63,6 +63,7 @@ public class FileController {
      *
      * @param file the file to upload
      * @param usage the media usage (POST, REEL, STORY)
+     * @param durationMs the video duration in milliseconds, if known by the client
      * @return ResponseEntity with MediaFile ID
      */
     @PostMapping("/upload/post-media")
@@ -70,8 +71,9 @@ public class FileController {
     @SecurityRequirement(name = "Bearer Authentication")
     public ResponseEntity<ApiResponse<MediaFileResponse>> uploadPostMedia(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "usage", defaultValue = "POST") MediaUsage usage) {
-        MediaFileResponse mediaFileResponse = fileService.uploadFile(file, usage);
+            @RequestParam(value = "usage", defaultValue = "POST") MediaUsage usage,
+            @RequestParam(value = "durationMs", required = false) Long durationMs) {
+        MediaFileResponse mediaFileResponse = fileService.uploadFile(file, usage, durationMs);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("File uploaded successfully", mediaFileResponse));
     }
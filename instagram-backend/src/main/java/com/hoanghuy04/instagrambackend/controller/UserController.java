@@ -123,7 +123,7 @@ public class UserController {
      * Get mutual follows for a user (users that both follow each other).
      *
      * @param userId the user ID
-     * @param query the search query (optional, filters by username, firstName, lastName)
+     * @param query the search query (optional, prefix of username, firstName or lastName)
      * @param page the page number (0-indexed, default: 0)
      * @param size the page size (default: 20)
      * @return ResponseEntity with List of UserResponse
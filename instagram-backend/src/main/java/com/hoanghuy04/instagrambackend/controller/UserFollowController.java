@@ -5,7 +5,9 @@ import com.hoanghuy04.instagrambackend.dto.response.FollowerUserResponse;
 import com.hoanghuy04.instagrambackend.dto.response.FollowToggleResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PostLikeUserResponse;
+import com.hoanghuy04.instagrambackend.dto.response.SuggestedUserResponse;
 import com.hoanghuy04.instagrambackend.service.follow.FollowService;
+import com.hoanghuy04.instagrambackend.service.follow.FollowSuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -13,12 +15,15 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserFollowController {
 
     private final FollowService followService;
+    private final FollowSuggestionService followSuggestionService;
 
     @PostMapping("/{targetUserId}/follow")
     public ResponseEntity<ApiResponse<FollowToggleResponse>> toggleFollow(
@@ -86,6 +91,14 @@ public class UserFollowController {
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    @GetMapping("/suggestions")
+    public ResponseEntity<ApiResponse<List<SuggestedUserResponse>>> getSuggestions(
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<SuggestedUserResponse> result = followSuggestionService.getSuggestions(limit);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
     @DeleteMapping("/followers/{followerId}")
     public ResponseEntity<ApiResponse<Void>> removeFollower(
             @PathVariable String followerId
@@ -2,12 +2,14 @@ package com.hoanghuy04.instagrambackend.controller.post;
 
 import com.hoanghuy04.instagrambackend.dto.request.CommentCreateRequest;
 import com.hoanghuy04.instagrambackend.dto.response.*;
+import com.hoanghuy04.instagrambackend.enums.CommentSortMode;
 import com.hoanghuy04.instagrambackend.service.post.PostCommentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -36,12 +38,13 @@ public class PostCommentController {
     @GetMapping("/{postId}/comments")
     public ResponseEntity<ApiResponse<PageResponse<CommentResponse>>> getComments(
             @PathVariable String postId,
+            @RequestParam(defaultValue = "RECENT") CommentSortMode mode,
             @PageableDefault(
                     sort = {"pinned", "createdAt"},
                     direction = Sort.Direction.DESC
             ) Pageable pageable
     ) {
-        return ResponseEntity.ok(ApiResponse.success(postCommentService.getComments(postId, pageable)));
+        return ResponseEntity.ok(ApiResponse.success(postCommentService.getComments(postId, mode, pageable)));
     }
 
     @GetMapping("/{postId}/comments/{commentId}/replies")
@@ -73,6 +76,14 @@ public class PostCommentController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    @DeleteMapping("/comments/by-user/{userId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
+    public ResponseEntity<ApiResponse<Long>> removeCommentsByUser(
+            @PathVariable String userId
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(postCommentService.removeCommentsByUser(userId)));
+    }
+
     @PostMapping("/{postId}/comments/{commentId}/pin")
     public ResponseEntity<ApiResponse<CommentPinToggleResponse>> togglePinComment(
             @PathVariable String postId,
@@ -1,11 +1,16 @@
 package com.hoanghuy04.instagrambackend.controller.post;
 
+import com.hoanghuy04.instagrambackend.constant.AppConstants;
 import com.hoanghuy04.instagrambackend.dto.request.CreatePostRequest;
 import com.hoanghuy04.instagrambackend.dto.response.ApiResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
+import com.hoanghuy04.instagrambackend.dto.response.PostDeletionJobResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PostResponse;
+import com.hoanghuy04.instagrambackend.dto.response.ReelManifestResponse;
 import com.hoanghuy04.instagrambackend.enums.PostType;
 import com.hoanghuy04.instagrambackend.service.post.PostService;
+import com.hoanghuy04.instagrambackend.service.post.PostStream;
+import com.hoanghuy04.instagrambackend.service.reel.ReelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,8 +19,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for post management endpoints.
@@ -32,7 +39,10 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "Bearer Authentication")
 public class PostController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PostService postService;
+    private final ReelService reelService;
     
     /**
      * Create a new post.
@@ -85,8 +95,10 @@ public class PostController {
     
     /**
      * Get user's posts.
+     * Passing {@code cursor} (empty for the first page) switches to keyset pagination.
      *
      * @param userId the user ID
+     * @param cursor opaque cursor from the previous page's nextCursor
      * @param pageable pagination information
      * @return ResponseEntity with PageResponse of PostResponse
      */
@@ -94,29 +106,60 @@ public class PostController {
     @Operation(summary = "Get user's posts")
     public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> getUserPosts(
             @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
             Pageable pageable) {
         log.info("Get user posts request received for user: {}", userId);
         
-        PageResponse<PostResponse> response = postService.getUserPosts(userId, pageable);
+        PageResponse<PostResponse> response = cursor != null
+                ? postService.getUserPostsByCursor(userId, cursor, cursorPageSize(pageable))
+                : postService.getUserPosts(userId, pageable);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
     /**
      * Get user's feed.
+     * Passing {@code cursor} (empty for the first page) switches to keyset pagination.
      *
+     * @param cursor opaque cursor from the previous page's nextCursor
      * @param pageable pagination information
      * @return ResponseEntity with PageResponse of PostResponse
      */
     @GetMapping("/feed")
     @Operation(summary = "Get user's feed")
     public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> getFeed(
+            @RequestParam(required = false) String cursor,
             Pageable pageable) {
         log.info("Get feed request received");
         
-        PageResponse<PostResponse> response = postService.getFeedPosts(pageable);
+        PageResponse<PostResponse> response = cursor != null
+                ? postService.getFeedPostsByCursor(cursor, cursorPageSize(pageable))
+                : postService.getFeedPosts(pageable);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Stream user's feed as NDJSON, one PostResponse per line, written as soon as
+     * each post is hydrated. The next cursor is returned in the X-Next-Cursor header.
+     *
+     * @param cursor opaque cursor from the previous slice (empty for the first one)
+     * @param pageable pagination information (only the size is used)
+     * @return ResponseEntity streaming the posts
+     */
+    @GetMapping(value = "/feed/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream user's feed as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamFeed(
+            @RequestParam(required = false) String cursor,
+            Pageable pageable) {
+        log.info("Stream feed request received");
+
+        PostStream stream = postService.streamFeedPosts(cursor, cursorPageSize(pageable));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (stream.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, stream.getNextCursor());
+        }
+        return builder.body(stream.getBody());
+    }
+
     /**
      * Get user's feed.
      *
@@ -130,20 +173,42 @@ public class PostController {
         return postService.getPostsByType(PostType.REEL, pageable);
     }
 
+    /**
+     * Get the reels manifest: ranked reel IDs with media URL, size and duration,
+     * plus how many of the returned items the client should prefetch.
+     *
+     * @param cursor opaque cursor from the previous slice's nextCursor
+     * @param pageable pagination information (only the size is used)
+     * @return ResponseEntity with ReelManifestResponse
+     */
+    @GetMapping("/reels/manifest")
+    @Operation(summary = "Get reels manifest with prefetch window")
+    public ResponseEntity<ApiResponse<ReelManifestResponse>> getReelsManifest(
+            @RequestParam(required = false) String cursor,
+            Pageable pageable) {
+        ReelManifestResponse response = reelService.getManifest(cursor, cursorPageSize(pageable));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
 
     /**
      * Get explore posts.
+     * Passing {@code cursor} (empty for the first page) switches to keyset pagination.
      *
+     * @param cursor opaque cursor from the previous page's nextCursor
      * @param pageable pagination information
      * @return ResponseEntity with PageResponse of PostResponse
      */
     @GetMapping("/explore")
     @Operation(summary = "Get explore posts")
     public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> getExplore(
+            @RequestParam(required = false) String cursor,
             Pageable pageable) {
         log.info("Get explore posts request received");
         
-        PageResponse<PostResponse> response = postService.getExplore(pageable);
+        PageResponse<PostResponse> response = cursor != null
+                ? postService.getExploreByCursor(cursor, cursorPageSize(pageable))
+                : postService.getExplore(pageable);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
@@ -167,18 +232,38 @@ public class PostController {
     
     /**
      * Delete a post.
+     * The post is removed immediately; its likes, comments and media are
+     * removed by a background job whose progress is returned here.
      *
      * @param id the post ID
-     * @return ResponseEntity with success message
+     * @return ResponseEntity with PostDeletionJobResponse
      */
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a post")
-    public ResponseEntity<ApiResponse<Void>> deletePost(
+    public ResponseEntity<ApiResponse<PostDeletionJobResponse>> deletePost(
             @PathVariable String id) {
         log.info("Delete post request received for ID: {}", id);
         
-        postService.deletePost(id);
-        return ResponseEntity.ok(ApiResponse.success("Post deleted successfully", null));
+        PostDeletionJobResponse response = postService.deletePost(id);
+        return ResponseEntity.ok(ApiResponse.success("Post deleted successfully", response));
+    }
+
+    /**
+     * Get the progress of a post cascade delete.
+     *
+     * @param jobId the deletion job ID
+     * @return ResponseEntity with PostDeletionJobResponse
+     */
+    @GetMapping("/deletions/{jobId}")
+    @Operation(summary = "Get post deletion progress")
+    public ResponseEntity<ApiResponse<PostDeletionJobResponse>> getDeletionJob(
+            @PathVariable String jobId) {
+        PostDeletionJobResponse response = postService.getDeletionJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    private int cursorPageSize(Pageable pageable) {
+        return Math.min(pageable.getPageSize(), AppConstants.MAX_PAGE_SIZE);
     }
 
 }
@@ -9,6 +9,7 @@ package com.hoanghuy04.instagrambackend.controller.post;
 
 import com.hoanghuy04.instagrambackend.dto.response.ApiResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
+import com.hoanghuy04.instagrambackend.dto.response.PostLikePreviewResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PostLikeToggleResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PostLikeUserResponse;
 import com.hoanghuy04.instagrambackend.service.post.PostLikeService;
@@ -51,5 +52,11 @@ public class PostLikeController {
 
         return ResponseEntity.ok(ApiResponse.success(postLikeService.getPostLikes(postId, query, pageable)));
     }
-}
 
+    @GetMapping("/{postId}/likes/preview")
+    public ResponseEntity<ApiResponse<PostLikePreviewResponse>> getLikePreview(
+            @PathVariable String postId
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(postLikeService.getLikePreview(postId)));
+    }
+}
@@ -47,5 +47,10 @@ public class CommentResponse {
     private List<String> mentions;
 
     private boolean isLikedByCurrentUser;
+
+    /**
+     * First replies of a top-level comment, oldest first
+     */
+    private List<CommentResponse> replies;
 }
 
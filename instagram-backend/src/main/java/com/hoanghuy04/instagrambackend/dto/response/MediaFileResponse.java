@@ -36,5 +36,10 @@ public class MediaFileResponse {
     
     private String contentType;
     
+    /**
+     * Video duration in milliseconds, null for images or when unknown
+     */
+    private Long durationMs;
+    
     private LocalDateTime uploadedAt;
 }
@@ -35,6 +35,9 @@ public class NotificationResponse {
     private String createdAt;
     private boolean read;
 
+    // number of distinct actors folded into this notification (1 for single-actor ones)
+    private int actorCount;
+
     private boolean isFollowingBack;
     private boolean isLikeComment;
 }
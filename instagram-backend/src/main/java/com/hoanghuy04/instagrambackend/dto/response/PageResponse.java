@@ -70,6 +70,12 @@ public class PageResponse<T> {
      * Whether the page is empty
      */
     private boolean empty;
+
+    /**
+     * Opaque cursor of the next page (cursor mode only, null when there is no next page).
+     * Totals are not computed in cursor mode.
+     */
+    private String nextCursor;
     
     /**
      * Create PageResponse from Spring Data Page object.
@@ -92,5 +98,25 @@ public class PageResponse<T> {
                 .empty(page.isEmpty())
                 .build();
     }
+
+    /**
+     * Create a cursor-mode PageResponse without total counts.
+     *
+     * @param content the items of the current slice
+     * @param pageSize the requested slice size
+     * @param nextCursor cursor of the next slice, or null if this is the last one
+     * @param <T> the type of content
+     * @return PageResponse with cursor metadata
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> content, int pageSize, String nextCursor) {
+        return PageResponse.<T>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .last(nextCursor == null)
+                .hasNext(nextCursor != null)
+                .empty(content.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
 
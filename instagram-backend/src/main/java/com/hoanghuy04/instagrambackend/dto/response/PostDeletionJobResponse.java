@@ -0,0 +1,42 @@
+package com.hoanghuy04.instagrambackend.dto.response;
+
+import com.hoanghuy04.instagrambackend.enums.DeletionJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for the progress of a post cascade delete.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostDeletionJobResponse {
+
+    private String jobId;
+
+    private String postId;
+
+    private DeletionJobStatus status;
+
+    private long postLikesDeleted;
+
+    private long commentsDeleted;
+
+    private long commentLikesDeleted;
+
+    private long mentionsDeleted;
+
+    private long mediaFilesDeleted;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,38 @@
+package com.hoanghuy04.instagrambackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the "liked by" preview of a post.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLikePreviewResponse {
+
+    private String postId;
+
+    /**
+     * The first users who liked the post
+     */
+    private List<PostLikeUserResponse> firstLikers;
+
+    /**
+     * Likers the current user follows
+     */
+    private List<PostLikeUserResponse> followedLikers;
+
+    /**
+     * Approximate number of distinct users who have liked the post
+     */
+    private long approximateLikers;
+}
@@ -0,0 +1,41 @@
+package com.hoanghuy04.instagrambackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one entry of the reels manifest.
+ * Carries only what the player needs to fetch and start the video.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReelManifestItemResponse {
+
+    private String postId;
+
+    private String authorId;
+
+    /**
+     * Full URL of the first media file of the reel
+     */
+    private String mediaUrl;
+
+    private String contentType;
+
+    /**
+     * File size in bytes
+     */
+    private Long fileSize;
+
+    /**
+     * Video duration in milliseconds, null when unknown
+     */
+    private Long durationMs;
+}
@@ -0,0 +1,34 @@
+package com.hoanghuy04.instagrambackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a slice of the reels manifest.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReelManifestResponse {
+
+    private List<ReelManifestItemResponse> items;
+
+    /**
+     * Number of items, from the start of {@code items}, the client should
+     * download ahead of playback
+     */
+    private int prefetchCount;
+
+    /**
+     * Opaque cursor for the next slice, null on the last one
+     */
+    private String nextCursor;
+}
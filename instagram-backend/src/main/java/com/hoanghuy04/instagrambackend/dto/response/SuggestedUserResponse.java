@@ -0,0 +1,30 @@
+package com.hoanghuy04.instagrambackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one "suggested for you" account.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestedUserResponse {
+
+    private String id;
+
+    private String username;
+
+    private String avatar;
+
+    /**
+     * Number of accounts the current user follows that follow this account
+     */
+    private int mutualCount;
+}
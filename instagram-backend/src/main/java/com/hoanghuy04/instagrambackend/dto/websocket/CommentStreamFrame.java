@@ -0,0 +1,46 @@
+package com.hoanghuy04.instagrambackend.dto.websocket;
+
+import com.hoanghuy04.instagrambackend.dto.response.CommentResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One coalesced frame of comment activity on a post, pushed to
+ * {@code /topic/posts/{postId}/comments}.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentStreamFrame {
+
+    private String postId;
+
+    /**
+     * Comments and replies created since the previous frame, oldest first
+     */
+    private List<CommentResponse> created;
+
+    /**
+     * Latest like count per comment ID
+     */
+    private Map<String, Long> likeCounts;
+
+    /**
+     * Latest pinned state per comment ID
+     */
+    private Map<String, Boolean> pinned;
+
+    /**
+     * IDs of deleted comments, replies of deleted threads included
+     */
+    private List<String> deleted;
+}
@@ -7,9 +7,12 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,22 +30,45 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "comments")
+@CompoundIndex(name = "post_thread_idx", def = "{'post': 1, 'parentComment': 1, 'pinned': -1, 'createdAt': -1}")
+@CompoundIndex(name = "post_rank_id_idx", def = "{'post': 1, 'parentComment': 1, 'pinned': -1, 'rankScore': -1, '_id': -1}")
+@CompoundIndex(name = "root_createdAt_idx", def = "{'rootId': 1, 'createdAt': 1}")
+@CompoundIndex(name = "parent_createdAt_idx", def = "{'parentComment': 1, 'createdAt': 1}")
 public class Comment {
 
     @Id
     private String id;
 
     @DocumentReference
+    @Indexed
     private Post post;
 
     @DocumentReference
+    @Indexed
     private User author;
 
+    /**
+     * Denormalized author username, so comment lists render without loading users.
+     */
+    private String authorUsername;
+
+    /**
+     * Denormalized author avatar.
+     */
+    private String authorAvatar;
+
     private String text;
 
     @DocumentReference
     private Comment parentComment;
 
+    /**
+     * ID of the top-level comment of the thread; null for top-level comments.
+     * Stored as ObjectId so threads can be joined on {@code _id}.
+     */
+    @Field(targetType = FieldType.OBJECT_ID)
+    private String rootId;
+
     @Builder.Default
     private long totalLikes = 0;
 
@@ -54,6 +80,16 @@ public class Comment {
     @Builder.Default
     private boolean pinned = false;
 
+    /**
+     * Fixed part of the rank score: recency plus the post-author bonus.
+     */
+    private Double rankBase;
+
+    /**
+     * Precomputed "top comments" score, see CommentRanker.
+     */
+    private Double rankScore;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -21,6 +21,8 @@ import java.util.*;
 @Document(collection = "conversations")
 @CompoundIndex(name = "participants_userId_idx", def = "{'participants.userId': 1}")
 @CompoundIndex(name = "type_participants_idx", def = "{'type': 1, 'participants.userId': 1}")
+@CompoundIndex(name = "leftMembers_userId_idx", def = "{'leftMembers.userId': 1}", sparse = true)
+@CompoundIndex(name = "lastMessage_senderId_idx", def = "{'lastMessage.senderId': 1}", sparse = true)
 public class Conversation {
     @Id
     String id;
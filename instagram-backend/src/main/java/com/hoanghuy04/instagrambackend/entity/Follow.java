@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 /**
  * Follow relationship between two users.
  * Instead of DocumentReference, we store plain IDs + denormalized usernames
- * to keep the schema simple and queries efficient.
+ * and avatars to keep the schema simple and queries efficient.
+ * The (followerId, followingId) pair is unique; the index is created by
+ * FollowEdgeStore once existing duplicates are removed.
  */
 @Data
 @Builder
@@ -50,6 +52,16 @@ public class Follow {
     @Indexed
     private String followingUsername;
 
+    /**
+     * Denormalized avatar of follower (for list rows).
+     */
+    private String followerAvatar;
+
+    /**
+     * Denormalized avatar of following (for list rows).
+     */
+    private String followingAvatar;
+
     /**
      * Timestamp when the follow relationship was created.
      */
@@ -0,0 +1,34 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import com.hoanghuy04.instagrambackend.entity.follow.SuggestedUser;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed "suggested for you" list of a user, keyed by user ID.
+ * Holds the top-N friends-of-friends, best first.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Document(collection = "follow_suggestions")
+public class FollowSuggestionList {
+    @Id
+    String id;
+
+    @Builder.Default
+    List<SuggestedUser> suggestions = new ArrayList<>();
+
+    LocalDateTime computedAt;
+}
@@ -0,0 +1,37 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker that a post's use of a hashtag has been counted, keyed by
+ * {@code postId:tag}. Makes the usage increment of a retried publish task a
+ * no-op; markers only need to outlive the task's retries, so they expire.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "hashtag_usages")
+public class HashtagUsage {
+
+    @Id
+    private String id;
+
+    private String postId;
+
+    private String tag;
+
+    @Indexed(expireAfter = "1d")
+    private LocalDateTime createdAt;
+}
@@ -27,6 +27,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Document(collection = "likes")
 @CompoundIndex(name = "user_target_idx", def = "{'user': 1, 'targetType': 1, 'targetId': 1}", unique = true)
+@CompoundIndex(name = "target_createdAt_idx", def = "{'targetType': 1, 'targetId': 1, 'createdAt': 1}")
+@CompoundIndex(name = "target_user_search_idx", def = "{'targetType': 1, 'targetId': 1, 'userSearch': 1}")
 public class Like {
 
     @Id
@@ -41,6 +43,12 @@ public class Like {
     @Indexed
     private String targetId;
 
+    /**
+     * Denormalized normalized username of the liker, for prefix search
+     * within the likers of one target.
+     */
+    private String userSearch;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -46,6 +46,9 @@ public class MediaFile {
     // VD: "image/jpeg", "image/png", "video/mp4"
     private String contentType;
 
+    // VIDEO only: duration in milliseconds, reported by the uploading client
+    private Long durationMs;
+
     @CreatedDate
     @Indexed
     private LocalDateTime uploadedAt;
@@ -3,9 +3,12 @@ package com.hoanghuy04.instagrambackend.entity;
 import com.hoanghuy04.instagrambackend.enums.NotificationType;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.List;
 
 @Getter
 @Setter
@@ -13,6 +16,9 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notifications")
+@CompoundIndex(name = "receiver_createdAt_idx", def = "{'receiverId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "tag_in_post_unique_idx", def = "{'receiverId': 1, 'postId': 1, 'type': 1}",
+        unique = true, partialFilter = "{'type': 'TAG_IN_POST'}")
 public class Notification {
 
     @Id
@@ -34,5 +40,12 @@ public class Notification {
 
     private boolean read;
 
+    // Aggregated notifications (LIKE_POST, LIKE_COMMENT): one rolling document per
+    // receiver, target and time window; senderId is the latest actor.
+    @Indexed(unique = true, sparse = true)
+    private String groupKey;
+    private Integer actorCount;           // null on single-actor notifications
+    private List<String> latestActorIds;  // most recent first, capped
+
     private Instant createdAt;
 }
@@ -0,0 +1,77 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import com.hoanghuy04.instagrambackend.enums.DeletionJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity tracking the cascade delete of a post's timeline entries, likes, comments,
+ * mentions and media.
+ * The job is saved before the post is removed and removes the post again itself,
+ * so a delete interrupted mid-request still completes. Everything hanging off the
+ * post is removed here in bounded batches, with counters updated after each batch
+ * as progress.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "post_deletion_jobs")
+@CompoundIndex(name = "status_leaseUntil_idx", def = "{'status': 1, 'leaseUntil': 1}")
+public class PostDeletionJob {
+
+    @Id
+    private String id;
+
+    private String postId;
+
+    private String authorId;
+
+    private String requestedBy;
+
+    private DeletionJobStatus status;
+
+    @Builder.Default
+    private List<String> mediaFileIds = new ArrayList<>();
+
+    @Builder.Default
+    private long postLikesDeleted = 0;
+
+    @Builder.Default
+    private long commentsDeleted = 0;
+
+    @Builder.Default
+    private long commentLikesDeleted = 0;
+
+    @Builder.Default
+    private long mentionsDeleted = 0;
+
+    @Builder.Default
+    private long mediaFilesDeleted = 0;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    private Instant leaseUntil;
+
+    private String lastError;
+
+    private Instant createdAt;
+
+    // finished jobs are kept a week for progress lookups, then expire
+    @Indexed(expireAfter = "7d")
+    private Instant finishedAt;
+}
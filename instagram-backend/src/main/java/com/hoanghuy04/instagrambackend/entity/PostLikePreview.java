@@ -0,0 +1,41 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import com.hoanghuy04.instagrambackend.entity.like.LikerSnapshot;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized "liked by" preview of a post, keyed by post ID.
+ * Keeps the first few likers in like order, capped to a fixed size.
+ * {@code builtAt} is set when the list was rebuilt from the likes collection
+ * and cleared when an unlike leaves a gap, so a short list of a post with few
+ * likes is not rebuilt on every read.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Document(collection = "post_like_previews")
+@CompoundIndex(name = "firstLikers_userId_idx", def = "{'firstLikers.userId': 1}")
+public class PostLikePreview {
+    @Id
+    String id;
+
+    @Builder.Default
+    List<LikerSnapshot> firstLikers = new ArrayList<>();
+
+    LocalDateTime builtAt;
+
+    LocalDateTime updatedAt;
+}
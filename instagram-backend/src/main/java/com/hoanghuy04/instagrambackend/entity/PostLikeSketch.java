@@ -0,0 +1,40 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One shard of the HyperLogLog sketch counting distinct likers of a post.
+ * Likers are spread over a few shard documents ({@code postId:shard}) so a
+ * viral post does not serialize every write on one document; the estimate
+ * merges all shards. Registers are stored sparsely (index to rank) and only
+ * ever raised with {@code $max}.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Document(collection = "post_like_sketches")
+public class PostLikeSketch {
+    @Id
+    String id;
+
+    @Indexed
+    String postId;
+
+    @Builder.Default
+    Map<String, Integer> registers = new HashMap<>();
+
+    LocalDateTime updatedAt;
+}
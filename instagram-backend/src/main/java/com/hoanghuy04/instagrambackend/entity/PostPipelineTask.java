@@ -0,0 +1,61 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import com.hoanghuy04.instagrambackend.enums.PipelineTaskStatus;
+import com.hoanghuy04.instagrambackend.enums.PostPipelineStage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity representing one pending side effect of publishing a post.
+ * Tasks are stored so they survive restarts; a worker claims due tasks,
+ * runs them and deletes them on success, or reschedules them with backoff.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "post_pipeline_tasks")
+@CompoundIndex(name = "status_nextAttemptAt_idx", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class PostPipelineTask {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String postId;
+
+    private String authorId;
+
+    private PostPipelineStage stage;
+
+    private PipelineTaskStatus status;
+
+    // HASHTAGS: normalized tags whose usage counters must be increased
+    @Builder.Default
+    private List<String> tags = new ArrayList<>();
+
+    @Builder.Default
+    private int attempts = 0;
+
+    private Instant nextAttemptAt;
+
+    // RUNNING tasks whose lease expired are claimed again (worker crashed mid-task)
+    private Instant leaseUntil;
+
+    private String lastError;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,53 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import com.hoanghuy04.instagrambackend.enums.PipelineTaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Entity representing a pending rewrite of a user's denormalized snapshots
+ * (username, avatar) in other collections, keyed by user ID.
+ * Repeated profile edits coalesce into one task holding the latest values;
+ * {@code version} grows with each edit so a worker finishing an older
+ * version does not delete the newer one.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "profile_sync_tasks")
+@CompoundIndex(name = "status_nextAttemptAt_idx", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class ProfileSyncTask {
+
+    @Id
+    private String id;
+
+    private String username;
+
+    private String avatar;
+
+    private long version;
+
+    private PipelineTaskStatus status;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    private Instant nextAttemptAt;
+
+    private Instant leaseUntil;
+
+    private String lastError;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,39 @@
+package com.hoanghuy04.instagrambackend.entity;
+
+import com.hoanghuy04.instagrambackend.entity.timeline.TimelineEntry;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized home timeline of a user.
+ * Entries are pushed on post creation (fan-out-on-write), kept newest first
+ * and capped to a fixed capacity.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Document(collection = "timelines")
+public class Timeline {
+    @Id
+    String id;
+
+    @Indexed(unique = true)
+    String userId;
+
+    @Builder.Default
+    List<TimelineEntry> entries = new ArrayList<>();
+
+    LocalDateTime updatedAt;
+}
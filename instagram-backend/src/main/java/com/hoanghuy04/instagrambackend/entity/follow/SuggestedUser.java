@@ -0,0 +1,24 @@
+package com.hoanghuy04.instagrambackend.entity.follow;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Embedded class representing one precomputed follow suggestion.
+ * Keeps the ranking inputs next to the score so clients can explain it
+ * ("followed by 3 people you follow").
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SuggestedUser {
+    String userId;
+    int mutualCount;
+    long recentPosts;
+    double score;
+}
@@ -0,0 +1,22 @@
+package com.hoanghuy04.instagrambackend.entity.like;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Embedded snapshot of a user who liked a post, kept on the "liked by"
+ * preview so it can be rendered without loading the user.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LikerSnapshot {
+    String userId;
+    String username;
+    String avatar;
+}
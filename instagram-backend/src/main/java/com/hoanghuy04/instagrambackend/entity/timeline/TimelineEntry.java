@@ -0,0 +1,25 @@
+package com.hoanghuy04.instagrambackend.entity.timeline;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Embedded class representing one post reference inside a user's home timeline.
+ * Keeps the author and creation time so the timeline can be ordered and filtered
+ * without loading the post itself.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TimelineEntry {
+    String postId;
+    String authorId;
+    LocalDateTime createdAt;
+}
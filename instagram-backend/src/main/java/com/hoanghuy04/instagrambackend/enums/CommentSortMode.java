@@ -0,0 +1,18 @@
+package com.hoanghuy04.instagrambackend.enums;
+
+/**
+ * Ordering of top-level comments on a post. Pinned comments always come first.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public enum CommentSortMode {
+    /**
+     * Newest first, or the order given by the request's sort.
+     */
+    RECENT,
+    /**
+     * By the precomputed rank score: engagement, post-author flag and recency.
+     */
+    TOP
+}
@@ -0,0 +1,14 @@
+package com.hoanghuy04.instagrambackend.enums;
+
+/**
+ * Lifecycle of a background cascade-delete job.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public enum DeletionJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
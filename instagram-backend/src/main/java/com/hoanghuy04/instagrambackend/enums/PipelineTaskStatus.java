@@ -0,0 +1,13 @@
+package com.hoanghuy04.instagrambackend.enums;
+
+/**
+ * Lifecycle of a background pipeline task.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public enum PipelineTaskStatus {
+    PENDING,
+    RUNNING,
+    FAILED
+}
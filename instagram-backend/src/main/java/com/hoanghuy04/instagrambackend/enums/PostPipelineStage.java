@@ -0,0 +1,14 @@
+package com.hoanghuy04.instagrambackend.enums;
+
+/**
+ * Background stages run after a post is published.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public enum PostPipelineStage {
+    HASHTAGS,
+    MENTIONS,
+    FAN_OUT,
+    NOTIFICATIONS
+}
@@ -6,13 +6,10 @@ package com.hoanghuy04.instagrambackend.mapper;
  * @date: 11/26/2025
  * @version: 1.0
  */
-import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
 import com.hoanghuy04.instagrambackend.dto.response.NotificationResponse;
 import com.hoanghuy04.instagrambackend.entity.Notification;
-import com.hoanghuy04.instagrambackend.entity.Post;
 import com.hoanghuy04.instagrambackend.entity.User;
 import com.hoanghuy04.instagrambackend.enums.NotificationType;
-import com.hoanghuy04.instagrambackend.service.FileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import lombok.extern.slf4j.Slf4j;
 import org.mapstruct.*;
@@ -29,9 +26,6 @@ public abstract class NotificationMapper {
     @Autowired
     protected UserMapper userMapper;
 
-    @Autowired
-    protected FileService fileService;
-
     /**
      * Main mapping: Notification -> NotificationResponse
      */
@@ -44,6 +38,7 @@ public abstract class NotificationMapper {
             @Mapping(target = "content", ignore = true),
             @Mapping(target = "isLikeComment", ignore = true),
             @Mapping(target = "isFollowingBack", ignore = true),
+            @Mapping(target = "actorCount", ignore = true),
             @Mapping(target = "createdAt",
                     expression = "java(notification.getCreatedAt() != null ? notification.getCreatedAt().toString() : null)")
     })
@@ -51,7 +46,7 @@ public abstract class NotificationMapper {
             Notification notification,
             User author,
             @Context boolean isFollowingBack,
-            @Context Post post
+            @Context String postThumbnail
     );
 
     @AfterMapping
@@ -59,30 +54,35 @@ public abstract class NotificationMapper {
             Notification notification,
             User author,
             @Context boolean isFollowingBack,
-            @Context Post post,
+            @Context String postThumbnail,
             @MappingTarget NotificationResponse.NotificationResponseBuilder response
     ) {
         // resolve isFollowingBack
         response.isFollowingBack(isFollowingBack);
 
-        // resolve post thumbnail if exists
-        if (post != null) {
-            MediaFileResponse media = fileService.getMediaFileResponses(post.getMediaFileIds()).get(0);
-            response.postThumbnail(media.getUrl());
-        } else {
-            response.postThumbnail(null);
-        }
+        // post thumbnail, resolved by the caller for the whole page
+        response.postThumbnail(postThumbnail);
 
         // determine isLikeComment
         boolean isLikeComment = notification.getType() == NotificationType.LIKE_COMMENT;
         response.isLikeComment(isLikeComment);
 
+        response.actorCount(actorCountOf(notification));
+
         response.content(buildContent(notification, author));
     }
 
 
+    private int actorCountOf(Notification n) {
+        return n.getActorCount() != null ? n.getActorCount() : 1;
+    }
+
     private String buildContent(Notification n, User author) {
         String username = author.getUsername();
+        int others = actorCountOf(n) - 1;
+        if (others > 0) {
+            username = username + " và " + others + " người khác";
+        }
 
         return switch (n.getType()) {
             case FOLLOW -> username + " đã bắt đầu theo dõi bạn.";
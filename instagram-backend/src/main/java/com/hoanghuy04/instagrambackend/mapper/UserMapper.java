@@ -69,6 +69,24 @@ public abstract class UserMapper {
                 .build();
     }
 
+    /**
+     * Convert User entity to UserSummaryResponse DTO using an already resolved avatar URL.
+     * Used by batch hydration so no per-user media lookup is needed.
+     */
+    public UserSummaryResponse toUserSummary(User user, boolean followingByCurrentUser, String avatarUrl) {
+        if (user == null) {
+            return null;
+        }
+
+        return UserSummaryResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .avatar(avatarUrl)
+                .isVerified(user.isVerified())
+                .followingByCurrentUser(followingByCurrentUser)
+                .build();
+    }
+
     /**
      * Get UserProfile with resolved avatar URL
      */
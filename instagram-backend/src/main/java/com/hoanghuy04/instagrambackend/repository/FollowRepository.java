@@ -4,7 +4,9 @@ import com.hoanghuy04.instagrambackend.entity.Follow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,8 +22,22 @@ public interface FollowRepository extends MongoRepository<Follow, String> {
 
     List<Follow> findByFollowingId(String followingId);
 
+    @Query(value = "{ 'followerId': ?0 }", fields = "{ 'followingId': 1 }")
+    List<Follow> findFollowingIdsByFollowerId(String followerId);
+
+    @Query(value = "{ 'followerId': ?0, 'followingId': { $in: ?1 } }", fields = "{ 'followingId': 1 }")
+    List<Follow> findFollowingIdsByFollowerIdAndFollowingIdIn(String followerId, Collection<String> followingIds);
+
+    @Query(value = "{ 'followingId': ?0 }", fields = "{ 'followerId': 1 }")
+    List<Follow> findFollowerIdsByFollowingId(String followingId);
+
+    @Query(value = "{ 'followingId': ?0 }", fields = "{ 'followerId': 1 }")
+    List<Follow> findFollowerIdsByFollowingId(String followingId, Pageable pageable);
+
     boolean existsByFollowerIdAndFollowingId(String followerId, String followingId);
 
+    List<Follow> findByFollowerIdAndFollowingIdIn(String followerId, Collection<String> followingIds);
+
     Page<Follow> findByFollowingIdAndFollowerUsernameContainingIgnoreCase(
             String followingId,
             String followerUsername,
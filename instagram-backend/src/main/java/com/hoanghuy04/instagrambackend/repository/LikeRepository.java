@@ -7,6 +7,7 @@ import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,5 +43,16 @@ public interface LikeRepository extends MongoRepository<Like, String> {
             List<User> users,
             Pageable pageable
     );
-}
 
+    /**
+     * Likers of one target whose normalized username matches an anchored
+     * (prefix) regex, served by the target_user_search_idx index.
+     */
+    @Query("{ 'targetType': ?0, 'targetId': ?1, 'userSearch': { $regex: ?2 } }")
+    Page<Like> findByTargetAndUserSearchRegex(
+            LikeTargetType targetType,
+            String targetId,
+            String regex,
+            Pageable pageable
+    );
+}
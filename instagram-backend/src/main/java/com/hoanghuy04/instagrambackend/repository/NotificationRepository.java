@@ -16,4 +16,5 @@ public interface NotificationRepository extends MongoRepository<Notification, St
     long countByReceiverIdAndReadFalse(String receiverId);
 
     List<Notification> findByReceiverIdAndReadFalse(String receiverId);
+
 }
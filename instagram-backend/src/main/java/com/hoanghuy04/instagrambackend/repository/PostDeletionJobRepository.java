@@ -0,0 +1,7 @@
+package com.hoanghuy04.instagrambackend.repository;
+
+import com.hoanghuy04.instagrambackend.entity.PostDeletionJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface PostDeletionJobRepository extends MongoRepository<PostDeletionJob, String> {
+}
@@ -0,0 +1,9 @@
+package com.hoanghuy04.instagrambackend.repository;
+
+import com.hoanghuy04.instagrambackend.entity.PostPipelineTask;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface PostPipelineTaskRepository extends MongoRepository<PostPipelineTask, String> {
+
+    void deleteByPostId(String postId);
+}
@@ -18,7 +18,7 @@ import java.util.List;
  * @version 1.0.0
  */
 @Repository
-public interface PostRepository extends MongoRepository<Post, String> {
+public interface PostRepository extends MongoRepository<Post, String>, PostRepositoryCustom {
     
     /**
      * Find all posts by a specific author.
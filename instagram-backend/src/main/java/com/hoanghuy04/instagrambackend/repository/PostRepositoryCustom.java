@@ -0,0 +1,59 @@
+package com.hoanghuy04.instagrambackend.repository;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.util.CursorUtil;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom post queries that cannot be expressed as derived queries.
+ * Posts returned here are read as raw documents; their authors and hashtags
+ * are resolved with one {@code $in} query each for the whole result instead
+ * of one {@code @DocumentReference} lookup per post.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * Keyset query: latest posts strictly older than the cursor, ordered by
+     * (createdAt desc, id desc). No count query is issued.
+     *
+     * @param authorIds restrict to these authors, or null for all posts
+     * @param cursor position to continue from, or null for the first page
+     * @param limit maximum number of posts to return
+     * @return List of posts
+     */
+    List<Post> findLatestBefore(Collection<String> authorIds, CursorUtil.Cursor cursor, int limit);
+
+    /**
+     * Load posts by ID. Missing posts are left out; order is not preserved.
+     *
+     * @param postIds the post IDs
+     * @return List of posts
+     */
+    List<Post> loadAll(Collection<String> postIds);
+
+    /**
+     * Page of posts matching the criteria.
+     *
+     * @param criteria the filter, or null for all posts
+     * @param pageable pagination information
+     * @return Page of posts
+     */
+    Page<Post> loadPage(Criteria criteria, Pageable pageable);
+
+    /**
+     * Author of a post, reading only the {@code author} field.
+     *
+     * @param postId the post ID
+     * @return the author ID, or empty if the post does not exist
+     */
+    Optional<String> findAuthorId(String postId);
+}
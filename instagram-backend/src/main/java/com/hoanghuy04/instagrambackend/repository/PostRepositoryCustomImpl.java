@@ -0,0 +1,133 @@
+package com.hoanghuy04.instagrambackend.repository;
+
+import com.hoanghuy04.instagrambackend.entity.Hashtag;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.util.CursorUtil;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Post> findLatestBefore(Collection<String> authorIds, CursorUtil.Cursor cursor, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+
+        if (authorIds != null) {
+            List<ObjectId> ids = authorIds.stream()
+                    .filter(ObjectId::isValid)
+                    .map(ObjectId::new)
+                    .toList();
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            filters.add(Criteria.where("author").in(ids));
+        }
+
+        if (cursor != null) {
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(cursor.getCreatedAt()),
+                    Criteria.where("createdAt").is(cursor.getCreatedAt()).and("_id").lt(new ObjectId(cursor.getId()))
+            ));
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+
+        return read(query);
+    }
+
+    @Override
+    public List<Post> loadAll(Collection<String> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return read(Query.query(Criteria.where("_id").in(postIds.stream().map(MongoDocs::toObjectId).toList())));
+    }
+
+    @Override
+    public Page<Post> loadPage(Criteria criteria, Pageable pageable) {
+        Query query = criteria != null ? Query.query(criteria) : new Query();
+        List<Post> posts = read(Query.of(query).with(pageable));
+        return PageableExecutionUtils.getPage(posts, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Post.class));
+    }
+
+    @Override
+    public Optional<String> findAuthorId(String postId) {
+        Query query = Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(postId)));
+        query.fields().include("author");
+        Document doc = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Post.class));
+        return Optional.ofNullable(doc).map(d -> MongoDocs.idOf(d.get("author")));
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+
+    /**
+     * Run the query on raw documents, then attach authors and hashtags loaded
+     * with one {@code $in} each.
+     */
+    private List<Post> read(Query query) {
+        List<Document> docs = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Post.class));
+        if (docs.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Object> authorIds = new HashSet<>();
+        Set<Object> tagIds = new HashSet<>();
+        for (Document doc : docs) {
+            Object author = doc.get("author");
+            if (author != null) {
+                authorIds.add(author);
+            }
+            tagIds.addAll(doc.getList("tags", Object.class, List.of()));
+        }
+        Map<String, User> authors = findByIds(authorIds, User.class, User::getId);
+        Map<String, Hashtag> tags = findByIds(tagIds, Hashtag.class, Hashtag::getId);
+
+        List<Post> posts = new ArrayList<>(docs.size());
+        for (Document doc : docs) {
+            Object author = doc.remove("author");
+            List<Object> tagRefs = doc.getList("tags", Object.class, List.of());
+            doc.remove("tags");
+
+            Post post = mongoTemplate.getConverter().read(Post.class, doc);
+            post.setAuthor(author != null ? authors.get(author.toString()) : null);
+            post.setTags(tagRefs.stream()
+                    .map(ref -> tags.get(ref.toString()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(ArrayList::new)));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private <T> Map<String, T> findByIds(Set<Object> ids, Class<T> type, Function<T, String> idOf) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), type).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+    }
+}
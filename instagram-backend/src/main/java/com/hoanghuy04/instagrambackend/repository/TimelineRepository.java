@@ -0,0 +1,13 @@
+package com.hoanghuy04.instagrambackend.repository;
+
+import com.hoanghuy04.instagrambackend.entity.Timeline;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface TimelineRepository extends MongoRepository<Timeline, String> {
+
+    Optional<Timeline> findByUserId(String userId);
+
+    void deleteByUserId(String userId);
+}
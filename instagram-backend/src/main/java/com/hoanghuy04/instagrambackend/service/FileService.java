@@ -73,6 +73,19 @@ public class FileService {
      */
     @Transactional
     public MediaFileResponse uploadFile(MultipartFile file, MediaUsage usage) {
+        return uploadFile(file, usage, null);
+    }
+
+    /**
+     * Upload a file with its video duration as reported by the client.
+     *
+     * @param file the file to upload
+     * @param usage the usage type (POST, REEL, STORY, PROFILE)
+     * @param durationMs the video duration in milliseconds, or null
+     * @return the MediaFile ID
+     */
+    @Transactional
+    public MediaFileResponse uploadFile(MultipartFile file, MediaUsage usage, Long durationMs) {
         String userId = securityUtil.getCurrentUserId();
         log.info("Uploading file for user: {} with usage: {}", userId, usage);
 
@@ -101,6 +114,7 @@ public class FileService {
                 .category(category)
                 .usage(usage)
                 .contentType(contentType)
+                .durationMs(category == MediaCategory.VIDEO ? durationMs : null)
                 .build();
 
         mediaFile = mediaFileRepository.save(mediaFile);
@@ -116,6 +130,7 @@ public class FileService {
                 .category(mediaFile.getCategory())
                 .usage(mediaFile.getUsage())
                 .contentType(mediaFile.getContentType())
+                .durationMs(mediaFile.getDurationMs())
                 .uploadedAt(mediaFile.getUploadedAt())
                 .build();
     }
@@ -187,11 +202,53 @@ public class FileService {
             return new ArrayList<>();
         }
 
+        Map<String, MediaFileResponse> byId = getMediaFileResponseMap(fileIds);
+
         return fileIds.stream()
-                .map(this::getMediaFileResponse)
+                .map(fileId -> {
+                    MediaFileResponse response = byId.get(fileId);
+                    if (response == null) {
+                        throw new ResourceNotFoundException("Media file not found with id: " + fileId);
+                    }
+                    return response;
+                })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Resolve many MediaFiles with a single query.
+     * IDs that are already URLs are passed through; unknown IDs are left out.
+     *
+     * @param fileIds file IDs or URLs
+     * @return map of requested ID to MediaFileResponse
+     */
+    @Transactional(readOnly = true)
+    public Map<String, MediaFileResponse> getMediaFileResponseMap(Collection<String> fileIds) {
+        Map<String, MediaFileResponse> result = new HashMap<>();
+        if (fileIds == null || fileIds.isEmpty()) {
+            return result;
+        }
+
+        Set<String> lookupIds = new HashSet<>();
+        for (String fileId : fileIds) {
+            if (fileId == null || fileId.isEmpty()) {
+                continue;
+            }
+            if (fileId.startsWith("http://") || fileId.startsWith("https://")) {
+                result.put(fileId, MediaFileResponse.builder().id(null).url(fileId).build());
+            } else {
+                lookupIds.add(fileId);
+            }
+        }
+
+        if (!lookupIds.isEmpty()) {
+            mediaFileRepository.findAllById(lookupIds)
+                    .forEach(mediaFile -> result.put(mediaFile.getId(), convertToMediaFileResponse(mediaFile)));
+        }
+
+        return result;
+    }
+
     /**
      * Convert MediaFile entity to MediaFileResponse with URL.
      *
@@ -209,6 +266,7 @@ public class FileService {
                 .category(mediaFile.getCategory())
                 .usage(mediaFile.getUsage())
                 .contentType(mediaFile.getContentType())
+                .durationMs(mediaFile.getDurationMs())
                 .uploadedAt(mediaFile.getUploadedAt())
                 .build();
     }
@@ -253,6 +311,34 @@ public class FileService {
         log.info("File deleted successfully");
     }
 
+    /**
+     * Delete many files with a single lookup and a single delete.
+     * Files already gone from disk are skipped; a file that cannot be removed
+     * keeps its metadata row so a later run can retry it.
+     *
+     * @param fileIds the file IDs to delete
+     * @return number of files deleted
+     */
+    @Transactional
+    public int deleteFiles(Collection<String> fileIds) {
+        if (fileIds == null || fileIds.isEmpty()) {
+            return 0;
+        }
+
+        List<String> deletedIds = new ArrayList<>();
+        for (MediaFile mediaFile : mediaFileRepository.findAllById(fileIds)) {
+            try {
+                deleteFileFromDisk(mediaFile.getFilePath());
+                deletedIds.add(mediaFile.getId());
+            } catch (FileUploadException e) {
+                log.warn("Could not delete file {} from disk: {}", mediaFile.getId(), e.getMessage());
+            }
+        }
+
+        mediaFileRepository.deleteAllById(deletedIds);
+        return deletedIds.size();
+    }
+
     /**
      * Save an uploaded file to the upload directory.
      *
@@ -0,0 +1,27 @@
+package com.hoanghuy04.instagrambackend.service.counter;
+
+import com.hoanghuy04.instagrambackend.entity.Comment;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Denormalized counters maintained by {@link CounterService}.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CounterField {
+    POST_LIKES(Post.class, "totalLikes"),
+    POST_COMMENTS(Post.class, "totalComments"),
+    COMMENT_LIKES(Comment.class, "totalLikes"),
+    COMMENT_REPLIES(Comment.class, "totalReply"),
+    USER_FOLLOWERS(User.class, "followersCount"),
+    USER_FOLLOWING(User.class, "followingCount");
+
+    private final Class<?> entityClass;
+    private final String field;
+}
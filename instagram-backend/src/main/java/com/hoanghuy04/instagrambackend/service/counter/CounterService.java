@@ -0,0 +1,42 @@
+package com.hoanghuy04.instagrambackend.service.counter;
+
+/**
+ * Service interface for denormalized counters.
+ * Counters are changed with atomic {@code $inc} updates instead of
+ * read-modify-save of the whole document, and never drop below zero.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface CounterService {
+
+    /**
+     * Atomically apply a delta and return the new value.
+     *
+     * @param field the counter
+     * @param id the document ID
+     * @param delta the change
+     * @return the counter value after the change, or 0 if the document does not exist
+     */
+    long increment(CounterField field, String id, long delta);
+
+    /**
+     * Apply a delta without needing the result. When buffering is enabled the
+     * delta is accumulated in memory and flushed in batches; otherwise this is
+     * an immediate {@code $inc}.
+     *
+     * @param field the counter
+     * @param id the document ID
+     * @param delta the change
+     */
+    void add(CounterField field, String id, long delta);
+
+    /**
+     * Deltas accumulated in memory and not yet flushed.
+     *
+     * @param field the counter
+     * @param id the document ID
+     * @return the pending delta, 0 when buffering is disabled
+     */
+    long pending(CounterField field, String id);
+}
@@ -0,0 +1,222 @@
+package com.hoanghuy04.instagrambackend.service.counter;
+
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CounterServiceImpl implements CounterService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.counters.buffered:false}")
+    private boolean buffered;
+
+    /**
+     * Buffered deltas are collected per generation. Each flush retires the
+     * current generation and drains the one retired on the previous flush, so
+     * a writer that read the generation just before the swap still has a full
+     * interval to land its delta before that generation is drained.
+     */
+    private volatile Generation current = new Generation();
+    private volatile Generation retired = new Generation();
+
+    // ==============================
+    // IMMEDIATE
+    // ==============================
+    @Override
+    public long increment(CounterField field, String id, long delta) {
+        Query query = Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(id)));
+        if (delta < 0) {
+            // only decrement when the result stays non-negative
+            query.addCriteria(Criteria.where(field.getField()).gte(-delta));
+        }
+
+        Number value = findAndInc(query, field, delta);
+        if (value == null && delta < 0) {
+            // would have gone negative: clamp to zero
+            value = findAndSet(Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(id))), field, 0L);
+        }
+        return value == null ? 0L : value.longValue();
+    }
+
+    // ==============================
+    // BUFFERED
+    // ==============================
+    @Override
+    public void add(CounterField field, String id, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!buffered) {
+            increment(field, id, delta);
+            return;
+        }
+        current.deltas.computeIfAbsent(new Key(field, id), k -> new LongAdder()).add(delta);
+    }
+
+    @Override
+    public long pending(CounterField field, String id) {
+        Key key = new Key(field, id);
+        return sumOf(current, key) + sumOf(retired, key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval-ms:1000}")
+    public void flush() {
+        if (!buffered) {
+            return;
+        }
+        Generation toDrain = retired;
+        retired = current;
+        current = new Generation();
+        drain(toDrain);
+    }
+
+    @PreDestroy
+    void flushAll() {
+        if (!buffered) {
+            return;
+        }
+        Generation a = retired;
+        Generation b = current;
+        retired = new Generation();
+        current = new Generation();
+        drain(a);
+        drain(b);
+    }
+
+    /**
+     * Write one generation with a single unordered bulk of {@code $inc} per collection.
+     * Updates that failed are added back to the current generation instead of
+     * being dropped, and are not clamped since they were not applied.
+     */
+    private void drain(Generation generation) {
+        Map<Class<?>, List<Map.Entry<Key, LongAdder>>> byEntity = generation.deltas.entrySet().stream()
+                .collect(Collectors.groupingBy(e -> e.getKey().field().getEntityClass()));
+
+        for (Map.Entry<Class<?>, List<Map.Entry<Key, LongAdder>>> group : byEntity.entrySet()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, group.getKey());
+            List<Key> keys = new ArrayList<>();
+            List<Long> deltas = new ArrayList<>();
+            for (Map.Entry<Key, LongAdder> entry : group.getValue()) {
+                long delta = entry.getValue().sum();
+                if (delta == 0) {
+                    continue;
+                }
+                Key key = entry.getKey();
+                bulk.updateOne(
+                        Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(key.id()))),
+                        new Update().inc(key.field().getField(), delta)
+                );
+                keys.add(key);
+                deltas.add(delta);
+            }
+            if (keys.isEmpty()) {
+                continue;
+            }
+
+            Set<Integer> failed = Set.of();
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                // unordered: the other updates were applied
+                failed = e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+            } catch (Exception e) {
+                failed = IntStream.range(0, keys.size()).boxed().collect(Collectors.toSet());
+            }
+            if (!failed.isEmpty()) {
+                log.warn("Failed to flush {} of {} buffered counter updates for {}, requeued",
+                        failed.size(), keys.size(), group.getKey().getSimpleName());
+            }
+
+            for (int i = 0; i < keys.size(); i++) {
+                Key key = keys.get(i);
+                if (failed.contains(i)) {
+                    // fold back into the live generation; the next flush retries it
+                    current.deltas.computeIfAbsent(key, k -> new LongAdder()).add(deltas.get(i));
+                } else if (deltas.get(i) < 0) {
+                    mongoTemplate.updateFirst(
+                            Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(key.id())).and(key.field().getField()).lt(0)),
+                            new Update().set(key.field().getField(), 0L),
+                            key.field().getEntityClass()
+                    );
+                }
+            }
+        }
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private Number findAndInc(Query query, CounterField field, long delta) {
+        return valueOf(mongoTemplate.findAndModify(
+                withCounterOnly(query, field),
+                new Update().inc(field.getField(), delta),
+                FindAndModifyOptions.options().returnNew(true),
+                Document.class,
+                mongoTemplate.getCollectionName(field.getEntityClass())
+        ), field);
+    }
+
+    private Number findAndSet(Query query, CounterField field, long value) {
+        return valueOf(mongoTemplate.findAndModify(
+                withCounterOnly(query, field),
+                new Update().set(field.getField(), value),
+                FindAndModifyOptions.options().returnNew(true),
+                Document.class,
+                mongoTemplate.getCollectionName(field.getEntityClass())
+        ), field);
+    }
+
+    /**
+     * Return only the counter, so references on the document are not resolved.
+     */
+    private Query withCounterOnly(Query query, CounterField field) {
+        query.fields().include(field.getField());
+        return query;
+    }
+
+    private Number valueOf(Document document, CounterField field) {
+        if (document == null) {
+            return null;
+        }
+        Object value = document.get(field.getField());
+        return value instanceof Number n ? n : 0L;
+    }
+
+    private long sumOf(Generation generation, Key key) {
+        LongAdder adder = generation.deltas.get(key);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    private record Key(CounterField field, String id) {
+    }
+
+    private static final class Generation {
+        private final Map<Key, LongAdder> deltas = new ConcurrentHashMap<>();
+    }
+}
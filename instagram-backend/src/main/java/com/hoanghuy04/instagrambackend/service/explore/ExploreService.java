@@ -0,0 +1,61 @@
+package com.hoanghuy04.instagrambackend.service.explore;
+
+import com.hoanghuy04.instagrambackend.util.RankedSnapshots;
+
+import java.util.List;
+
+/**
+ * Service interface for the ranked explore feed.
+ * Keeps a time-decayed engagement score per recent post and serves
+ * a precomputed top-K ranking from memory.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface ExploreService {
+
+    /**
+     * Ranked post IDs for a viewer, best first, without the viewer's own posts
+     * and without posts of authors the viewer already follows.
+     *
+     * @param viewerId the current user ID, or null for anonymous access
+     * @return list of post IDs (bounded by the top-K size)
+     */
+    List<String> getRankedPostIds(String viewerId);
+
+    /**
+     * A page of ranked post IDs for a viewer, filtered as {@link #getRankedPostIds}.
+     * The cursor pins the ranking it was read from, so re-ranking between
+     * pages neither skips nor repeats posts.
+     *
+     * @param viewerId the current user ID
+     * @param cursor opaque cursor from the previous page, or null/empty for the first one
+     * @param size the page size
+     * @return post IDs with the next cursor
+     */
+    RankedSnapshots.Slice<String> getRankedPage(String viewerId, String cursor, int size);
+
+    /**
+     * Register a freshly created post as an explore candidate.
+     *
+     * @param postId the post ID
+     * @param authorId the author ID
+     */
+    void onPostCreated(String postId, String authorId);
+
+    /**
+     * Apply a like/comment counter change to a candidate.
+     *
+     * @param postId the post ID
+     * @param likeDelta change of totalLikes
+     * @param commentDelta change of totalComments
+     */
+    void onEngagement(String postId, long likeDelta, long commentDelta);
+
+    /**
+     * Drop a deleted post from the candidates and the ranking.
+     *
+     * @param postId the post ID
+     */
+    void onPostDeleted(String postId);
+}
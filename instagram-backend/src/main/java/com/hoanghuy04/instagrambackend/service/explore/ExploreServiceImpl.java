@@ -0,0 +1,208 @@
+package com.hoanghuy04.instagrambackend.service.explore;
+
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import com.hoanghuy04.instagrambackend.util.EngagementScore;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import com.hoanghuy04.instagrambackend.util.RankedSnapshots;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExploreServiceImpl implements ExploreService {
+
+    private static final double GRAVITY = 1.5;
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowGraph followGraph;
+
+    @Value("${app.explore.candidate-limit:5000}")
+    private int candidateLimit;
+
+    @Value("${app.explore.top-k:500}")
+    private int topK;
+
+    @Value("${app.explore.snapshot-retention-ms:900000}")
+    private long snapshotRetentionMs;
+
+    private volatile Map<String, Candidate> candidates = new ConcurrentHashMap<>();
+
+    private RankedSnapshots<Candidate> ranking;
+
+    @PostConstruct
+    void init() {
+        ranking = new RankedSnapshots<>(Candidate::getPostId, Duration.ofMillis(snapshotRetentionMs));
+    }
+
+    // ==============================
+    // READ
+    // ==============================
+    @Override
+    public List<String> getRankedPostIds(String viewerId) {
+        List<Candidate> snapshot = ranking.current();
+        if (viewerId == null) {
+            return snapshot.stream().map(Candidate::getPostId).toList();
+        }
+
+        Predicate<Candidate> visible = visibleTo(viewerId);
+        return snapshot.stream()
+                .filter(visible)
+                .map(Candidate::getPostId)
+                .toList();
+    }
+
+    @Override
+    public RankedSnapshots.Slice<String> getRankedPage(String viewerId, String cursor, int size) {
+        RankedSnapshots.Slice<Candidate> slice = ranking.slice(cursor, size, visibleTo(viewerId));
+        return new RankedSnapshots.Slice<>(
+                slice.items().stream().map(Candidate::getPostId).toList(),
+                slice.nextCursor()
+        );
+    }
+
+    // ==============================
+    // INCREMENTAL UPDATES
+    // ==============================
+    @Override
+    public void onPostCreated(String postId, String authorId) {
+        candidates.put(postId, new Candidate(postId, authorId, Instant.now(), 0, 0));
+    }
+
+    @Override
+    public void onEngagement(String postId, long likeDelta, long commentDelta) {
+        Candidate candidate = candidates.get(postId);
+        if (candidate == null) {
+            return;
+        }
+        if (likeDelta != 0) {
+            candidate.likes.addAndGet(likeDelta);
+        }
+        if (commentDelta != 0) {
+            candidate.comments.addAndGet(commentDelta);
+        }
+    }
+
+    @Override
+    public void onPostDeleted(String postId) {
+        candidates.remove(postId);
+        ranking.remove(postId);
+    }
+
+    // ==============================
+    // SCHEDULED REFRESH
+    // ==============================
+
+    /**
+     * Reload the candidate set (most recent posts with their counters) from Mongo.
+     * Reads raw documents so the author reference is not dereferenced per post.
+     */
+    @Scheduled(initialDelayString = "${app.explore.reload-initial-delay-ms:0}",
+            fixedDelayString = "${app.explore.reload-interval-ms:600000}")
+    public void reloadCandidates() {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(candidateLimit);
+        query.fields().include("_id", "author", "totalLikes", "totalComments", "createdAt");
+
+        Map<String, Candidate> loaded = new ConcurrentHashMap<>();
+        for (Document doc : mongoTemplate.find(query, Document.class, "posts")) {
+            Candidate candidate = toCandidate(doc);
+            if (candidate != null) {
+                loaded.put(candidate.getPostId(), candidate);
+            }
+        }
+
+        candidates = loaded;
+        rerank();
+        log.info("Explore candidates reloaded: {} posts", loaded.size());
+    }
+
+    /**
+     * Recompute time-decayed scores from the in-memory counters and publish the top-K
+     * as a new snapshot; cursors keep paging through the one they started on.
+     */
+    @Scheduled(initialDelayString = "${app.explore.rerank-interval-ms:30000}",
+            fixedDelayString = "${app.explore.rerank-interval-ms:30000}")
+    public void rerank() {
+        Instant now = Instant.now();
+        ranking.publish(candidates.values().stream()
+                .sorted(Comparator.comparingDouble((Candidate c) -> c.score(now)).reversed())
+                .limit(topK)
+                .toList());
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private Predicate<Candidate> visibleTo(String viewerId) {
+        if (viewerId == null) {
+            return c -> true;
+        }
+        Set<String> followingIds = followGraph.followingSet(viewerId);
+        return c -> !viewerId.equals(c.getAuthorId()) && !followingIds.contains(c.getAuthorId());
+    }
+
+    private Candidate toCandidate(Document doc) {
+        Object id = doc.get("_id");
+        Object author = doc.get("author");
+        Date createdAt = doc.getDate("createdAt");
+        if (id == null || author == null || createdAt == null) {
+            return null;
+        }
+        return new Candidate(
+                id.toString(),
+                MongoDocs.idOf(author),
+                createdAt.toInstant(),
+                MongoDocs.longOf(doc.get("totalLikes")),
+                MongoDocs.longOf(doc.get("totalComments"))
+        );
+    }
+
+    /**
+     * Explore candidate with live engagement counters, scored by
+     * {@link EngagementScore} with gravity 1.5.
+     */
+    private static final class Candidate {
+        private final String postId;
+        private final String authorId;
+        private final Instant createdAt;
+        private final AtomicLong likes;
+        private final AtomicLong comments;
+
+        private Candidate(String postId, String authorId, Instant createdAt, long likes, long comments) {
+            this.postId = postId;
+            this.authorId = authorId;
+            this.createdAt = createdAt;
+            this.likes = new AtomicLong(likes);
+            this.comments = new AtomicLong(comments);
+        }
+
+        private String getPostId() {
+            return postId;
+        }
+
+        private String getAuthorId() {
+            return authorId;
+        }
+
+        private double score(Instant now) {
+            return EngagementScore.of(likes.get(), comments.get(), createdAt, now, GRAVITY);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hoanghuy04.instagrambackend.service.feed;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.util.CursorUtil;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Service interface for the materialized home timeline.
+ * Posts are pushed to followers on write; authors above the celebrity
+ * threshold are merged in on read instead.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface TimelineService {
+
+    /**
+     * Push a freshly created post into the timelines of its author and followers.
+     *
+     * @param post the saved post
+     */
+    void fanOutPost(Post post);
+
+    /**
+     * Read one page of a user's home timeline, newest first.
+     *
+     * @param userId the owner of the timeline
+     * @param pageable pagination information
+     * @return Page of posts
+     */
+    Page<Post> getTimelinePage(String userId, Pageable pageable);
+
+    /**
+     * Read the timeline posts strictly older than a keyset cursor, newest first.
+     * The next cursor follows the timeline entries, not the loaded posts, so
+     * entries whose post is gone neither end paging early nor stall it.
+     *
+     * @param userId the owner of the timeline
+     * @param cursor position to continue from, or null for the first slice
+     * @param limit maximum number of entries to read
+     * @return posts of the slice with the cursor of the next one
+     */
+    TimelineSlice getTimelineSlice(String userId, CursorUtil.Cursor cursor, int limit);
+
+    /**
+     * Remove a deleted post from the timelines it was pushed to: its author's
+     * and its followers'. Timelines of former followers were already dropped
+     * on unfollow.
+     *
+     * @param postId the deleted post ID
+     * @param authorId the post author ID
+     */
+    void removePost(String postId, String authorId);
+
+    /**
+     * Drop a user's materialized timeline so it is rebuilt on the next read.
+     *
+     * @param userId the owner of the timeline
+     */
+    void invalidate(String userId);
+}
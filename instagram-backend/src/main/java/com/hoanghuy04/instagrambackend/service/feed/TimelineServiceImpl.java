@@ -0,0 +1,243 @@
+package com.hoanghuy04.instagrambackend.service.feed;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.Timeline;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.entity.timeline.TimelineEntry;
+import com.hoanghuy04.instagrambackend.repository.PostRepository;
+import com.hoanghuy04.instagrambackend.repository.TimelineRepository;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import com.hoanghuy04.instagrambackend.util.CursorUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator.comparing(
+            TimelineEntry::getCreatedAt,
+            Comparator.nullsLast(Comparator.reverseOrder())
+    ).thenComparing(TimelineEntry::getPostId, Comparator.reverseOrder());
+
+    private final TimelineRepository timelineRepository;
+    private final PostRepository postRepository;
+    private final FollowGraph followGraph;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.feed.timeline-capacity:500}")
+    private int timelineCapacity;
+
+    @Value("${app.feed.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    // ==============================
+    // WRITE PATH
+    // ==============================
+    @Override
+    public void fanOutPost(Post post) {
+        User author = post.getAuthor();
+        if (author == null || post.getId() == null) {
+            return;
+        }
+
+        List<String> receiverIds = new ArrayList<>();
+        receiverIds.add(author.getId());
+
+        // Celebrity posts are pulled by followers on read instead of being pushed here
+        if (!isCelebrity(author.getId())) {
+            receiverIds.addAll(followGraph.followersSet(author.getId()));
+        }
+
+        // Only existing timelines are updated; missing ones are built lazily on first read.
+        // Timelines already holding the post are skipped, so a retried fan-out is a no-op.
+        Query query = Query.query(Criteria.where("userId").in(receiverIds).and("entries.postId").ne(post.getId()));
+        long modified = mongoTemplate.updateMulti(query, pushEntries(List.of(toEntry(post))), Timeline.class)
+                .getModifiedCount();
+
+        log.debug("Post {} fanned out to {} timelines", post.getId(), modified);
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        timelineRepository.deleteByUserId(userId);
+    }
+
+    // ==============================
+    // READ PATH
+    // ==============================
+    @Override
+    public Page<Post> getTimelinePage(String userId, Pageable pageable) {
+        int offset = (int) pageable.getOffset();
+        int window = offset + pageable.getPageSize();
+
+        Map<String, Post> loaded = new HashMap<>();
+        List<TimelineEntry> merged = mergeEntries(userId, null, window + 1, loaded);
+
+        List<TimelineEntry> pageEntries = merged.stream()
+                .skip(offset)
+                .limit(pageable.getPageSize())
+                .toList();
+
+        return new PageImpl<>(loadPosts(pageEntries, loaded), pageable, merged.size());
+    }
+
+    @Override
+    public TimelineSlice getTimelineSlice(String userId, CursorUtil.Cursor cursor, int limit) {
+        Map<String, Post> loaded = new HashMap<>();
+        List<TimelineEntry> merged = mergeEntries(userId, cursor, limit + 1, loaded);
+
+        boolean hasNext = merged.size() > limit;
+        List<TimelineEntry> sliceEntries = hasNext ? merged.subList(0, limit) : merged;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TimelineEntry last = sliceEntries.get(sliceEntries.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getPostId());
+        }
+
+        return new TimelineSlice(loadPosts(sliceEntries, loaded), nextCursor);
+    }
+
+    @Override
+    public void removePost(String postId, String authorId) {
+        List<String> receiverIds = new ArrayList<>();
+        receiverIds.add(authorId);
+        receiverIds.addAll(followGraph.followersSet(authorId));
+
+        Query query = Query.query(Criteria.where("userId").in(receiverIds).and("entries.postId").is(postId));
+        Update update = new Update().pull("entries", new Document("postId", postId));
+        long modified = mongoTemplate.updateMulti(query, update, Timeline.class).getModifiedCount();
+
+        log.debug("Post {} removed from {} timelines", postId, modified);
+    }
+
+    /**
+     * Merge pushed timeline entries with pulled celebrity posts, newest first.
+     * Pulled posts are put into {@code loaded} so they are not fetched twice.
+     */
+    private List<TimelineEntry> mergeEntries(
+            String userId,
+            CursorUtil.Cursor cursor,
+            int limit,
+            Map<String, Post> loaded
+    ) {
+        // Both sets come from the in-memory follow graph: no Mongo round trip before the timeline itself
+        Set<String> followingIds = followGraph.followingSet(userId);
+        Set<String> celebrityIds = followGraph.withFollowersAtLeast(followingIds, celebrityThreshold);
+
+        Timeline timeline = timelineRepository.findByUserId(userId)
+                .orElseGet(() -> rebuild(userId, followingIds, celebrityIds));
+
+        // Entries of authors that were unfollowed since the push are skipped
+        List<TimelineEntry> candidates = timeline.getEntries().stream()
+                .filter(e -> userId.equals(e.getAuthorId()) || followingIds.contains(e.getAuthorId()))
+                .filter(e -> cursor == null || cursor.isAfter(e.getCreatedAt(), e.getPostId()))
+                .limit(limit)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        if (!celebrityIds.isEmpty()) {
+            postRepository.findLatestBefore(celebrityIds, cursor, limit).forEach(p -> {
+                loaded.put(p.getId(), p);
+                candidates.add(toEntry(p));
+            });
+        }
+
+        return candidates.stream()
+                .sorted(NEWEST_FIRST)
+                .filter(distinctBy(TimelineEntry::getPostId))
+                .limit(limit)
+                .toList();
+    }
+
+    private List<Post> loadPosts(List<TimelineEntry> entries, Map<String, Post> loaded) {
+        List<String> missing = entries.stream()
+                .map(TimelineEntry::getPostId)
+                .filter(id -> !loaded.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            postRepository.loadAll(missing).forEach(p -> loaded.put(p.getId(), p));
+        }
+
+        // Deleted posts simply drop out of the page
+        return entries.stream()
+                .map(e -> loaded.get(e.getPostId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private Timeline rebuild(String userId, Set<String> followingIds, Set<String> celebrityIds) {
+        Set<String> authorIds = new HashSet<>(followingIds);
+        authorIds.removeAll(celebrityIds);
+        authorIds.add(userId);
+
+        List<TimelineEntry> entries = postRepository.findLatestBefore(authorIds, null, timelineCapacity)
+                .stream()
+                .map(this::toEntry)
+                .toList();
+
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        Update update = new Update()
+                .set("entries", entries)
+                .set("updatedAt", LocalDateTime.now());
+        mongoTemplate.upsert(query, update, Timeline.class);
+
+        log.debug("Timeline rebuilt for user {} with {} entries", userId, entries.size());
+
+        return Timeline.builder()
+                .userId(userId)
+                .entries(new ArrayList<>(entries))
+                .build();
+    }
+
+    private Update pushEntries(List<TimelineEntry> entries) {
+        return new Update()
+                .push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .slice(timelineCapacity)
+                .each(entries.toArray())
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    /**
+     * Decided from the same follower counts the read path uses, so a post is
+     * always either pushed or pulled.
+     */
+    private boolean isCelebrity(String userId) {
+        return !followGraph.withFollowersAtLeast(List.of(userId), celebrityThreshold).isEmpty();
+    }
+
+    private TimelineEntry toEntry(Post post) {
+        return TimelineEntry.builder()
+                .postId(post.getId())
+                .authorId(post.getAuthor() != null ? post.getAuthor().getId() : null)
+                .createdAt(post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now())
+                .build();
+    }
+
+    private static <T> Predicate<T> distinctBy(Function<T, String> key) {
+        Set<String> seen = new HashSet<>();
+        return t -> seen.add(key.apply(t));
+    }
+}
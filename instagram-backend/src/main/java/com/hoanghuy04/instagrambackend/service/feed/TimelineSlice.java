@@ -0,0 +1,27 @@
+package com.hoanghuy04.instagrambackend.service.feed;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A cursor slice of the home timeline.
+ * May hold fewer posts than requested when some entries point at posts
+ * that are gone; paging goes on as long as {@code nextCursor} is set.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class TimelineSlice {
+
+    private final List<Post> posts;
+
+    /**
+     * Cursor for the next slice, null on the last one
+     */
+    private final String nextCursor;
+}
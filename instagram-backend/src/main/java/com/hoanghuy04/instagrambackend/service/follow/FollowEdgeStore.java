@@ -0,0 +1,285 @@
+package com.hoanghuy04.instagrambackend.service.follow;
+
+import com.hoanghuy04.instagrambackend.entity.Follow;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.service.counter.CounterField;
+import com.hoanghuy04.instagrambackend.service.counter.CounterService;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Follow edges with idempotent writes.
+ * An edge is created by an upsert on (followerId, followingId) and removed by
+ * a delete on the same filter; a unique index on the pair makes concurrent
+ * follows of the same pair collapse to one document. Counters move with
+ * {@code $inc} only when the write actually changed the edge, so retries and
+ * double-taps cannot drift them. A periodic reconciler recounts edges and
+ * repairs counters that drifted anyway (e.g. writes made outside this class).
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowEdgeStore {
+
+    private static final String PAIR_INDEX = "follower_following_unique_idx";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CounterService counterService;
+
+    @Value("${app.follows.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    /**
+     * Create the edge if it does not exist.
+     *
+     * @return true if this call created it
+     */
+    public boolean follow(User follower, User following) {
+        UpdateResult result;
+        try {
+            result = mongoTemplate.upsert(
+                    pair(follower.getId(), following.getId()),
+                    new Update()
+                            .setOnInsert("followerUsername", follower.getUsername())
+                            .setOnInsert("followingUsername", following.getUsername())
+                            .setOnInsert("followerAvatar", avatarOf(follower))
+                            .setOnInsert("followingAvatar", avatarOf(following))
+                            .setOnInsert("createdAt", LocalDateTime.now()),
+                    Follow.class
+            );
+        } catch (DuplicateKeyException e) {
+            // a concurrent upsert of the same pair won the insert
+            return false;
+        }
+        if (result.getUpsertedId() == null) {
+            return false;
+        }
+        counterService.increment(CounterField.USER_FOLLOWING, follower.getId(), 1);
+        counterService.increment(CounterField.USER_FOLLOWERS, following.getId(), 1);
+        return true;
+    }
+
+    /**
+     * Remove the edge if it exists.
+     *
+     * @return true if this call removed it
+     */
+    public boolean unfollow(String followerId, String followingId) {
+        if (mongoTemplate.remove(pair(followerId, followingId), Follow.class).getDeletedCount() == 0) {
+            return false;
+        }
+        counterService.increment(CounterField.USER_FOLLOWING, followerId, -1);
+        counterService.increment(CounterField.USER_FOLLOWERS, followingId, -1);
+        return true;
+    }
+
+    /**
+     * Drop duplicate edges left from before the unique index, then create it.
+     * Done here rather than with {@code @CompoundIndex} because index creation
+     * fails while duplicates exist. Once the index exists there can be no
+     * duplicates, so later startups skip the scan.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureUniqueEdges() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Follow.class);
+        if (indexOps.getIndexInfo().stream().anyMatch(index -> PAIR_INDEX.equals(index.getName()))) {
+            return;
+        }
+        long removed = removeDuplicates();
+        indexOps.createIndex(new Index()
+                .on("followerId", Sort.Direction.ASC)
+                .on("followingId", Sort.Direction.ASC)
+                .unique()
+                .named(PAIR_INDEX));
+        if (removed > 0) {
+            log.info("Removed {} duplicate follow edges", removed);
+            reconcile();
+        }
+    }
+
+    /**
+     * Edges that predate the avatar snapshots get them filled in from the
+     * users, one bulk update per batch of distinct users.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillAvatars() {
+        long updated = backfillAvatar("followerId", "followerAvatar")
+                + backfillAvatar("followingId", "followingAvatar");
+        if (updated > 0) {
+            log.info("Backfilled avatars on {} follow edges", updated);
+        }
+    }
+
+    /**
+     * Recount followers / following of every user from the follows
+     * collection, one batch of users at a time, and fix the counters that
+     * differ. Each fix is conditional on the counter still holding the value
+     * that was read, so a concurrent {@code $inc} is never overwritten.
+     */
+    @Scheduled(initialDelayString = "${app.follows.reconcile-interval-ms:21600000}",
+            fixedDelayString = "${app.follows.reconcile-interval-ms:21600000}")
+    public void reconcile() {
+        Query users = new Query();
+        users.fields().include("followersCount").include("followingCount");
+
+        List<Document> batch = new ArrayList<>(reconcileBatchSize);
+        long[] repaired = {0};
+        try (var docs = mongoTemplate.stream(users, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            docs.forEach(doc -> {
+                batch.add(doc);
+                if (batch.size() == reconcileBatchSize) {
+                    repaired[0] += reconcile(batch);
+                    batch.clear();
+                }
+            });
+        }
+        repaired[0] += reconcile(batch);
+        if (repaired[0] > 0) {
+            log.info("Reconciled {} follow counters", repaired[0]);
+        }
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private long backfillAvatar(String idField, String avatarField) {
+        String follows = mongoTemplate.getCollectionName(Follow.class);
+        Query missing = Query.query(Criteria.where(avatarField).exists(false)).limit(BACKFILL_BATCH_SIZE);
+        missing.fields().include(idField).exclude("_id");
+
+        return MongoDocs.backfill(mongoTemplate, follows, missing, batch -> {
+            Set<String> userIds = batch.stream()
+                    .map(doc -> doc.getString(idField))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+
+            Query users = Query.query(Criteria.where("_id").in(userIds.stream().map(MongoDocs::toObjectId).toList()));
+            users.fields().include("profile.avatar");
+            Map<String, String> avatarByUser = new HashMap<>();
+            for (Document user : mongoTemplate.find(users, Document.class, mongoTemplate.getCollectionName(User.class))) {
+                Document profile = user.get("profile", Document.class);
+                avatarByUser.put(user.get("_id").toString(), profile != null ? profile.getString("avatar") : null);
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, follows);
+            for (String userId : userIds) {
+                // users without an avatar, or gone, get an explicit null
+                bulk.updateMulti(
+                        Query.query(Criteria.where(idField).is(userId).and(avatarField).exists(false)),
+                        new Update().set(avatarField, avatarByUser.get(userId))
+                );
+            }
+            // edges without the user ID at all
+            bulk.updateMulti(
+                    Query.query(Criteria.where(idField).exists(false).and(avatarField).exists(false)),
+                    new Update().set(avatarField, null)
+            );
+            return bulk.execute().getModifiedCount();
+        });
+    }
+
+    private String avatarOf(User user) {
+        return user.getProfile() != null ? user.getProfile().getAvatar() : null;
+    }
+
+    private int reconcile(List<Document> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = users.stream().map(doc -> doc.get("_id").toString()).toList();
+        Map<String, Long> following = countBy("followerId", ids);
+        Map<String, Long> followers = countBy("followingId", ids);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int ops = 0;
+        for (Document user : users) {
+            String id = user.get("_id").toString();
+            ops += repair(bulk, user, CounterField.USER_FOLLOWING, following.getOrDefault(id, 0L));
+            ops += repair(bulk, user, CounterField.USER_FOLLOWERS, followers.getOrDefault(id, 0L));
+        }
+        if (ops > 0) {
+            bulk.execute();
+        }
+        return ops;
+    }
+
+    private int repair(BulkOperations bulk, Document user, CounterField field, long actual) {
+        Object stored = user.get(field.getField());
+        long current = stored instanceof Number n ? n.longValue() : 0L;
+        if (current == actual) {
+            return 0;
+        }
+        Criteria unchanged = stored == null
+                ? Criteria.where(field.getField()).exists(false)
+                : Criteria.where(field.getField()).is(stored);
+        bulk.updateOne(
+                Query.query(Criteria.where("_id").is(user.get("_id")).andOperator(unchanged)),
+                new Update().set(field.getField(), actual)
+        );
+        return 1;
+    }
+
+    private Map<String, Long> countBy(String field, List<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(field).in(userIds)),
+                Aggregation.group(field).count().as("count")
+        );
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Follow.class), Document.class)
+                .getMappedResults().stream()
+                .collect(Collectors.toMap(doc -> doc.getString("_id"), doc -> ((Number) doc.get("count")).longValue()));
+    }
+
+    /**
+     * Keep the oldest document of each duplicated pair.
+     */
+    private long removeDuplicates() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.group("followerId", "followingId").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        List<Object> extra = new ArrayList<>();
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Follow.class), Document.class)
+                .getMappedResults()
+                .forEach(group -> {
+                    List<?> ids = group.get("ids", List.class);
+                    extra.addAll(ids.subList(1, ids.size()));
+                });
+        if (extra.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").in(extra)), Follow.class).getDeletedCount();
+    }
+
+    private Query pair(String followerId, String followingId) {
+        return Query.query(Criteria.where("followerId").is(followerId).and("followingId").is(followingId));
+    }
+}
@@ -0,0 +1,604 @@
+package com.hoanghuy04.instagrambackend.service.follow;
+
+import com.hoanghuy04.instagrambackend.entity.Follow;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.entity.UserProfile;
+import com.hoanghuy04.instagrambackend.repository.FollowRepository;
+import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.util.StringUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory follow graph.
+ * User IDs are mapped to dense ints; each user's following (out) and
+ * followers (in) are sorted int arrays, replaced copy-on-write on change, so
+ * relationship checks are a binary search and mutuals a merge of two arrays.
+ * Roughly 8 bytes per edge instead of a Follow document per edge. Each user
+ * also keeps normalized search terms (username, first and last name) so
+ * filtered mutuals can be walked without loading users.
+ * <p>
+ * Built from the follows collection on startup and rebuilt periodically;
+ * FollowService applies each follow/unfollow as it happens. Until the first
+ * build completes, queries fall back to Mongo.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowGraph {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Graph graph;
+
+    /**
+     * Edge changes applied while a rebuild is reading the collection, replayed
+     * on the new graph so they are not lost.
+     */
+    private List<Edge> sinceRebuild;
+
+    // ==============================
+    // QUERIES
+    // ==============================
+    public boolean isFollowing(String followerId, String followingId) {
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return followRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
+            }
+            Integer from = graph.index.get(followerId);
+            Integer to = graph.index.get(followingId);
+            return from != null && to != null && Arrays.binarySearch(graph.out.get(from), to) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<String> followingSet(String userId) {
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return followRepository.findFollowingIdsByFollowerId(userId).stream()
+                        .map(Follow::getFollowingId)
+                        .collect(Collectors.toSet());
+            }
+            return graph.toIds(graph.row(graph.out, userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<String> followersSet(String userId) {
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return followRepository.findFollowerIdsByFollowingId(userId).stream()
+                        .map(Follow::getFollowerId)
+                        .collect(Collectors.toSet());
+            }
+            return graph.toIds(graph.row(graph.in, userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} followers of a user, in no particular order. Copies
+     * only that many entries of the row, so it stays cheap for large accounts.
+     */
+    public List<String> followers(String userId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return followRepository.findFollowerIdsByFollowingId(userId, PageRequest.of(0, limit)).stream()
+                        .map(Follow::getFollowerId)
+                        .toList();
+            }
+            int[] row = graph.row(graph.in, userId);
+            List<String> followers = new ArrayList<>(Math.min(limit, row.length));
+            for (int i = 0; i < row.length && i < limit; i++) {
+                followers.add(graph.ids.get(row[i]));
+            }
+            return followers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The subset of {@code candidateIds} that {@code followerId} follows.
+     */
+    public Set<String> followedAmong(String followerId, Collection<String> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return followRepository.findFollowingIdsByFollowerIdAndFollowingIdIn(followerId, candidateIds).stream()
+                        .map(Follow::getFollowingId)
+                        .collect(Collectors.toSet());
+            }
+            int[] out = graph.row(graph.out, followerId);
+            Set<String> followed = new HashSet<>();
+            for (String candidateId : candidateIds) {
+                Integer to = graph.index.get(candidateId);
+                if (to != null && Arrays.binarySearch(out, to) >= 0) {
+                    followed.add(candidateId);
+                }
+            }
+            return followed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The subset of {@code userIds} with at least {@code minFollowers} followers,
+     * read from the length of their follower rows. Falls back to the users'
+     * stored counters until the graph is loaded.
+     */
+    public Set<String> withFollowersAtLeast(Collection<String> userIds, long minFollowers) {
+        if (userIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                Query query = Query.query(Criteria.where("_id").in(userIds)
+                        .and("followersCount").gte(minFollowers));
+                query.fields().include("_id");
+                return mongoTemplate.find(query, User.class).stream()
+                        .map(User::getId)
+                        .collect(Collectors.toSet());
+            }
+            Set<String> result = new HashSet<>();
+            for (String userId : userIds) {
+                if (graph.row(graph.in, userId).length >= minFollowers) {
+                    result.add(userId);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Users who follow {@code userId} and are followed back.
+     */
+    public Set<String> mutuals(String userId) {
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                Set<String> mutuals = followingSet(userId);
+                mutuals.retainAll(followersSet(userId));
+                return mutuals;
+            }
+            Set<String> mutuals = new LinkedHashSet<>();
+            intersect(graph.row(graph.out, userId), graph.row(graph.in, userId),
+                    index -> mutuals.add(graph.ids.get(index)));
+            return mutuals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Friends-of-friends of a user: accounts followed by people the user
+     * follows, excluding the user and accounts already followed, each with the
+     * number of followed people that lead to it. Empty while the graph is not
+     * loaded; callers retry later rather than falling back to Mongo.
+     *
+     * @param userId the user
+     * @param maxFanout how many of the user's followings to expand, and how many
+     *                  followings of each to read
+     * @return candidate ID to mutual-connection count
+     */
+    public Map<String, Integer> friendsOfFriends(String userId, int maxFanout) {
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return new HashMap<>();
+            }
+            Integer self = graph.index.get(userId);
+            if (self == null) {
+                return new HashMap<>();
+            }
+            int[] following = graph.out.get(self);
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (int f = 0; f < Math.min(following.length, maxFanout); f++) {
+                int[] next = graph.out.get(following[f]);
+                for (int n = 0; n < Math.min(next.length, maxFanout); n++) {
+                    int candidate = next[n];
+                    if (candidate != self && Arrays.binarySearch(following, candidate) < 0) {
+                        counts.merge(candidate, 1, Integer::sum);
+                    }
+                }
+            }
+            Map<String, Integer> result = new HashMap<>(counts.size());
+            counts.forEach((index, count) -> result.put(graph.ids.get(index), count));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return graph != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mutuals whose username, first or last name starts with {@code prefix},
+     * walking the two sorted rows only until {@code limit} matches are found.
+     * Cost grows with the number of rows visited, not with the result of a
+     * full intersection.
+     *
+     * @param userId the user
+     * @param prefix optional search prefix, matched after normalization
+     * @param limit maximum number of IDs to return
+     * @return mutual user IDs in a stable order
+     */
+    public List<String> mutuals(String userId, String prefix, int limit) {
+        String normalized = prefix == null || prefix.isBlank() ? null : StringUtil.normalizeForSearch(prefix.trim());
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return mutualsFromMongo(userId, normalized, limit);
+            }
+            int[] a = graph.row(graph.out, userId);
+            int[] b = graph.row(graph.in, userId);
+            List<String> result = new ArrayList<>(Math.min(limit, Math.min(a.length, b.length)));
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length && result.size() < limit) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    if (normalized == null || matches(graph.terms.get(a[i]), normalized)) {
+                        result.add(graph.ids.get(a[i]));
+                    }
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==============================
+    // UPDATES
+    // ==============================
+    public void onFollow(User follower, User following) {
+        apply(new Edge(follower.getId(), following.getId(), true));
+        onProfileChanged(follower);
+        onProfileChanged(following);
+    }
+
+    public void onUnfollow(String followerId, String followingId) {
+        apply(new Edge(followerId, followingId, false));
+    }
+
+    /**
+     * Refresh the search terms of a user already in the graph.
+     */
+    public void onProfileChanged(User user) {
+        String[] terms = termsOf(user.getUsername(), user.getProfile());
+        lock.writeLock().lock();
+        try {
+            if (graph != null) {
+                Integer i = graph.index.get(user.getId());
+                if (i != null) {
+                    graph.terms.set(i, terms);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Reload from Mongo to pick up changes made outside FollowService.
+     */
+    @Scheduled(initialDelayString = "${app.follow-graph.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.follow-graph.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            sinceRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Graph built;
+        try {
+            built = readAll();
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                sinceRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to build follow graph", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            sinceRebuild.forEach(built::apply);
+            sinceRebuild = null;
+            graph = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Follow graph built: {} users, {} edges", built.ids.size(), built.edgeCount());
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private void apply(Edge edge) {
+        lock.writeLock().lock();
+        try {
+            if (graph != null) {
+                graph.apply(edge);
+            }
+            if (sinceRebuild != null) {
+                sinceRebuild.add(edge);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stream only the two ID fields and build each adjacency row once, sorted.
+     */
+    private Graph readAll() {
+        Graph built = new Graph();
+        List<IntList> out = new ArrayList<>();
+        List<IntList> in = new ArrayList<>();
+
+        Query query = new Query();
+        query.fields().include("followerId").include("followingId").exclude("_id");
+        try (var follows = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Follow.class))) {
+            follows.forEach(doc -> {
+                String followerId = doc.getString("followerId");
+                String followingId = doc.getString("followingId");
+                if (followerId == null || followingId == null) {
+                    return;
+                }
+                int from = built.indexOf(followerId);
+                int to = built.indexOf(followingId);
+                while (out.size() < built.ids.size()) {
+                    out.add(new IntList());
+                    in.add(new IntList());
+                }
+                out.get(from).add(to);
+                in.get(to).add(from);
+            });
+        }
+
+        for (int i = 0; i < built.ids.size(); i++) {
+            built.out.set(i, out.get(i).toSortedDistinct());
+            built.in.set(i, in.get(i).toSortedDistinct());
+        }
+
+        Query users = new Query();
+        users.fields().include("username").include("profile.firstName").include("profile.lastName");
+        try (var docs = mongoTemplate.stream(users, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            docs.forEach(doc -> {
+                Integer i = built.index.get(doc.get("_id").toString());
+                if (i == null) {
+                    return;
+                }
+                Document profile = doc.get("profile", Document.class);
+                built.terms.set(i, terms(
+                        doc.getString("username"),
+                        profile != null ? profile.getString("firstName") : null,
+                        profile != null ? profile.getString("lastName") : null
+                ));
+            });
+        }
+        return built;
+    }
+
+    private List<String> mutualsFromMongo(String userId, String prefix, int limit) {
+        Set<String> mutualIds = mutuals(userId);
+        if (prefix == null) {
+            return mutualIds.stream().sorted().limit(limit).toList();
+        }
+        return userRepository.findAllById(mutualIds).stream()
+                .filter(user -> matches(termsOf(user.getUsername(), user.getProfile()), prefix))
+                .map(User::getId)
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
+
+    private static boolean matches(String[] terms, String prefix) {
+        if (terms == null) {
+            return false;
+        }
+        for (String term : terms) {
+            if (term != null && term.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] termsOf(String username, UserProfile profile) {
+        return terms(username,
+                profile != null ? profile.getFirstName() : null,
+                profile != null ? profile.getLastName() : null);
+    }
+
+    private static String[] terms(String username, String firstName, String lastName) {
+        return new String[]{
+                StringUtil.normalizeForSearch(username),
+                StringUtil.normalizeForSearch(firstName),
+                StringUtil.normalizeForSearch(lastName)
+        };
+    }
+
+    /**
+     * Merge-walk two sorted arrays, reporting common values in order.
+     */
+    static void intersect(int[] a, int[] b, IntConsumer onCommon) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                onCommon.accept(a[i]);
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static int[] insert(int[] row, int value) {
+        int pos = Arrays.binarySearch(row, value);
+        if (pos >= 0) {
+            return row;
+        }
+        pos = -pos - 1;
+        int[] copy = new int[row.length + 1];
+        System.arraycopy(row, 0, copy, 0, pos);
+        copy[pos] = value;
+        System.arraycopy(row, pos, copy, pos + 1, row.length - pos);
+        return copy;
+    }
+
+    private static int[] remove(int[] row, int value) {
+        int pos = Arrays.binarySearch(row, value);
+        if (pos < 0) {
+            return row;
+        }
+        int[] copy = new int[row.length - 1];
+        System.arraycopy(row, 0, copy, 0, pos);
+        System.arraycopy(row, pos + 1, copy, pos, row.length - pos - 1);
+        return copy;
+    }
+
+    private record Edge(String followerId, String followingId, boolean added) {
+    }
+
+    private static final class Graph {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<int[]> out = new ArrayList<>();
+        private final List<int[]> in = new ArrayList<>();
+        private final List<String[]> terms = new ArrayList<>();
+
+        private int indexOf(String userId) {
+            Integer existing = index.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            int created = ids.size();
+            index.put(userId, created);
+            ids.add(userId);
+            out.add(EMPTY);
+            in.add(EMPTY);
+            terms.add(null);
+            return created;
+        }
+
+        private int[] row(List<int[]> rows, String userId) {
+            Integer i = index.get(userId);
+            return i == null ? EMPTY : rows.get(i);
+        }
+
+        private Set<String> toIds(int[] row) {
+            Set<String> result = new HashSet<>(row.length * 2);
+            for (int i : row) {
+                result.add(ids.get(i));
+            }
+            return result;
+        }
+
+        private void apply(Edge edge) {
+            int from = indexOf(edge.followerId());
+            int to = indexOf(edge.followingId());
+            if (edge.added()) {
+                out.set(from, insert(out.get(from), to));
+                in.set(to, insert(in.get(to), from));
+            } else {
+                out.set(from, remove(out.get(from), to));
+                in.set(to, remove(in.get(to), from));
+            }
+        }
+
+        private long edgeCount() {
+            return out.stream().mapToLong(row -> row.length).sum();
+        }
+    }
+
+    /**
+     * Growable int buffer used while loading.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toSortedDistinct() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return Arrays.stream(sorted).distinct().toArray();
+        }
+    }
+}
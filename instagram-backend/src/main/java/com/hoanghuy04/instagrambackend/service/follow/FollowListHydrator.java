@@ -0,0 +1,112 @@
+package com.hoanghuy04.instagrambackend.service.follow;
+
+import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
+import com.hoanghuy04.instagrambackend.entity.Follow;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.service.FileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Page-level hydration for follower / following lists.
+ * For follow edges, usernames and avatars come from the snapshots on the
+ * edges, kept current by ProfileSnapshotSync, so no user is loaded; other
+ * lists of user IDs load the users with one {@code $in}. Avatar URLs and the
+ * viewer's follow state are resolved for the whole page at once: one
+ * {@code $in} on media files, and one on follows (or none while the follow
+ * graph is loaded), however many rows the page has.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class FollowListHydrator {
+
+    private final UserRepository userRepository;
+    private final FileService fileService;
+    private final FollowGraph followGraph;
+
+    /**
+     * Resolve the followers listed on a page of edges.
+     *
+     * @param follows the page of edges
+     * @param viewerId user whose follow state is wanted, or null to skip it
+     * @return hydrated rows keyed by follower ID
+     */
+    public Map<String, Row> hydrateFollowers(List<Follow> follows, String viewerId) {
+        return hydrateSnapshots(follows.stream()
+                .map(f -> new Snapshot(f.getFollowerId(), f.getFollowerUsername(), f.getFollowerAvatar()))
+                .toList(), viewerId);
+    }
+
+    /**
+     * Resolve the followed users listed on a page of edges.
+     *
+     * @param follows the page of edges
+     * @param viewerId user whose follow state is wanted, or null to skip it
+     * @return hydrated rows keyed by followed user ID
+     */
+    public Map<String, Row> hydrateFollowing(List<Follow> follows, String viewerId) {
+        return hydrateSnapshots(follows.stream()
+                .map(f -> new Snapshot(f.getFollowingId(), f.getFollowingUsername(), f.getFollowingAvatar()))
+                .toList(), viewerId);
+    }
+
+    /**
+     * Resolve users that are not listed through a follow edge.
+     *
+     * @param userIds IDs of the users listed on the page
+     * @param viewerId user whose follow state is wanted, or null to skip it
+     * @return hydrated rows keyed by user ID; users that no longer exist are absent
+     */
+    public Map<String, Row> hydrate(List<String> userIds, String viewerId) {
+        if (userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return hydrateSnapshots(userRepository.findAllById(userIds).stream()
+                .map(u -> new Snapshot(u.getId(), u.getUsername(), avatarOf(u)))
+                .toList(), viewerId);
+    }
+
+    private Map<String, Row> hydrateSnapshots(List<Snapshot> snapshots, String viewerId) {
+        if (snapshots.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, MediaFileResponse> avatars = fileService.getMediaFileResponseMap(snapshots.stream()
+                .map(Snapshot::avatar)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        Set<String> followed = viewerId == null
+                ? Set.of()
+                : followGraph.followedAmong(viewerId, snapshots.stream().map(Snapshot::id).toList());
+
+        Map<String, Row> rows = new HashMap<>();
+        for (Snapshot snapshot : snapshots) {
+            MediaFileResponse avatar = snapshot.avatar() != null ? avatars.get(snapshot.avatar()) : null;
+            rows.put(snapshot.id(), new Row(
+                    snapshot.id(),
+                    snapshot.username(),
+                    avatar != null ? avatar.getUrl() : null,
+                    followed.contains(snapshot.id())
+            ));
+        }
+        return rows;
+    }
+
+    private String avatarOf(User user) {
+        return user.getProfile() != null ? user.getProfile().getAvatar() : null;
+    }
+
+    private record Snapshot(String id, String username, String avatar) {
+    }
+
+    public record Row(String id, String username, String avatarUrl, boolean followedByViewer) {
+    }
+}
@@ -9,7 +9,7 @@ import com.hoanghuy04.instagrambackend.entity.User;
 import com.hoanghuy04.instagrambackend.exception.ResourceNotFoundException;
 import com.hoanghuy04.instagrambackend.repository.FollowRepository;
 import com.hoanghuy04.instagrambackend.repository.UserRepository;
-import com.hoanghuy04.instagrambackend.service.FileService;
+import com.hoanghuy04.instagrambackend.service.feed.TimelineService;
 import com.hoanghuy04.instagrambackend.service.notification.NotificationService;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +18,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,11 +27,16 @@ public class FollowServiceImpl implements FollowService {
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
     private final SecurityUtil securityUtil;
-    private final FileService fileService;
 
     // 👇 THÊM VÀO: dùng để tạo notification FOLLOW
     private final NotificationService notificationService;
 
+    private final TimelineService timelineService;
+    private final FollowGraph followGraph;
+    private final FollowEdgeStore followEdgeStore;
+    private final FollowListHydrator followListHydrator;
+    private final FollowSuggestionService followSuggestionService;
+
     @Transactional
     @Override
     public FollowToggleResponse toggleFollow(String targetUserId) {
@@ -44,48 +49,31 @@ public class FollowServiceImpl implements FollowService {
         User target = userRepository.findById(targetUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        Optional<Follow> existing = followRepository.findByFollowerIdAndFollowingId(
-                currentUser.getId(),
-                target.getId()
-        );
-
+        // The current state only picks the direction of the toggle; the write
+        // itself is idempotent, so a double-tap that races here changes nothing twice.
         boolean following;
-
-        if (existing.isPresent()) {
+        if (followRepository.existsByFollowerIdAndFollowingId(currentUser.getId(), target.getId())) {
             // UNFOLLOW
-            followRepository.delete(existing.get());
-
-            long newFollowingCount = currentUser.getFollowingCount() - 1;
-            long newFollowersCount = target.getFollowersCount() - 1;
-
-            currentUser.setFollowingCount(Math.max(0L, newFollowingCount));
-            target.setFollowersCount(Math.max(0L, newFollowersCount));
-
+            if (followEdgeStore.unfollow(currentUser.getId(), target.getId())) {
+                followGraph.onUnfollow(currentUser.getId(), target.getId());
+            }
             following = false;
         } else {
             // FOLLOW
-            Follow follow = Follow.builder()
-                    .followerId(currentUser.getId())
-                    .followingId(target.getId())
-                    .followerUsername(currentUser.getUsername())
-                    .followingUsername(target.getUsername())
-                    .build();
-
-            followRepository.save(follow);
-
-            currentUser.setFollowingCount(currentUser.getFollowingCount() + 1);
-            target.setFollowersCount(target.getFollowersCount() + 1);
+            if (followEdgeStore.follow(currentUser, target)) {
+                followGraph.onFollow(currentUser, target);
 
+                // 👇 CHỈ TẠO NOTI KHI BẮT ĐẦU THEO DÕI
+                // senderId = currentUser (lấy trong NotificationService bằng SecurityUtil),
+                // receiverId = target.getId()
+                notificationService.createFollowNotification(target.getId());
+            }
             following = true;
-
-            // 👇 CHỈ TẠO NOTI KHI BẮT ĐẦU THEO DÕI
-            // senderId = currentUser (lấy trong NotificationService bằng SecurityUtil),
-            // receiverId = target.getId()
-            notificationService.createFollowNotification(target.getId());
         }
 
-        userRepository.save(currentUser);
-        userRepository.save(target);
+        // home timeline is rebuilt on next read with the new follow graph
+        timelineService.invalidate(currentUser.getId());
+        followSuggestionService.onFollowChanged(currentUser.getId(), target.getId());
 
         return FollowToggleResponse.builder()
                 .followerId(currentUser.getId())
@@ -102,29 +90,9 @@ public class FollowServiceImpl implements FollowService {
 
         Page<Follow> page = followRepository.findByFollowingId(target.getId(), pageable);
 
-        Page<PostLikeUserResponse> dtoPage = page.map(follow -> {
-            String followerId = follow.getFollowerId();
-
-            User follower = userRepository.findById(followerId)
-                    .orElse(null);
-
-            String avatar = null;
-            String username = follow.getFollowerUsername();
-
-            if (follower != null) {
-                if (follower.getProfile() != null) {
-                    avatar = follower.getProfile().getAvatar();
-                }
-                username = follower.getUsername();
-            }
-
-            PostLikeUserResponse dto = new PostLikeUserResponse();
-            dto.setId(followerId);
-            dto.setUsername(username);
-            dto.setAvatar(fileService.getMediaFileResponse(avatar).getUrl());
+        Map<String, FollowListHydrator.Row> rows = followListHydrator.hydrateFollowers(page.getContent(), null);
 
-            return dto;
-        });
+        Page<PostLikeUserResponse> dtoPage = page.map(follow -> toUserResponse(rows.get(follow.getFollowerId())));
 
         return PageResponse.of(dtoPage);
     }
@@ -137,29 +105,9 @@ public class FollowServiceImpl implements FollowService {
 
         Page<Follow> page = followRepository.findByFollowerId(target.getId(), pageable);
 
-        Page<PostLikeUserResponse> dtoPage = page.map(follow -> {
-            String followingId = follow.getFollowingId();
-
-            User followingUser = userRepository.findById(followingId)
-                    .orElse(null);
-
-            String avatarUrl = null;
-            String username = follow.getFollowingUsername();
-
-            if (followingUser != null) {
-                if (followingUser.getProfile() != null) {
-                    avatarUrl = followingUser.getProfile().getAvatar();
-                }
-                username = followingUser.getUsername();
-            }
-
-            PostLikeUserResponse dto = new PostLikeUserResponse();
-            dto.setId(followingId);
-            dto.setUsername(username);
-            dto.setAvatar(fileService.getMediaFileResponse(avatarUrl).getUrl());
+        Map<String, FollowListHydrator.Row> rows = followListHydrator.hydrateFollowing(page.getContent(), null);
 
-            return dto;
-        });
+        Page<PostLikeUserResponse> dtoPage = page.map(follow -> toUserResponse(rows.get(follow.getFollowingId())));
 
         return PageResponse.of(dtoPage);
     }
@@ -173,15 +121,11 @@ public class FollowServiceImpl implements FollowService {
             return false;
         }
 
-        User target = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Optional<Follow> existing = followRepository.findByFollowerIdAndFollowingId(
-                currentUser.getId(),
-                target.getId()
-        );
+        if (!userRepository.existsById(targetUserId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        return existing.isPresent();
+        return followGraph.isFollowing(currentUser.getId(), targetUserId);
     }
 
     @Transactional(readOnly = true)
@@ -198,32 +142,16 @@ public class FollowServiceImpl implements FollowService {
                 pageable
         );
 
-        Page<FollowerUserResponse> dtoPage = page.map(follow -> {
-            String followerId = follow.getFollowerId();
-
-            User follower = userRepository.findById(followerId)
-                    .orElse(null);
-
-            String avatarUrl = null;
-            String followerUsername = follow.getFollowerUsername();
-
-            if (follower != null) {
-                if (follower.getProfile() != null) {
-                    avatarUrl = follower.getProfile().getAvatar();
-                }
-                followerUsername = follower.getUsername();
-            }
-
-            boolean isFollowedByCurrentUser = followRepository.existsByFollowerIdAndFollowingId(
-                    currentUser.getId(),
-                    followerId
-            );
+        Map<String, FollowListHydrator.Row> rows = followListHydrator.hydrateFollowers(
+                page.getContent(), currentUser.getId());
 
+        Page<FollowerUserResponse> dtoPage = page.map(follow -> {
+            FollowListHydrator.Row row = rows.get(follow.getFollowerId());
             return FollowerUserResponse.builder()
-                    .id(followerId)
-                    .username(followerUsername)
-                    .avatarUrl(avatarUrl)
-                    .followingByCurrentUser(isFollowedByCurrentUser)
+                    .id(row.id())
+                    .username(row.username())
+                    .avatarUrl(row.avatarUrl())
+                    .followingByCurrentUser(row.followedByViewer())
                     .build();
         });
 
@@ -242,28 +170,9 @@ public class FollowServiceImpl implements FollowService {
                 pageable
         );
 
-        Page<PostLikeUserResponse> dtoPage = page.map(follow -> {
-            String followingId = follow.getFollowingId();
-
-            User followingUser = userRepository.findById(followingId)
-                    .orElse(null);
-
-            String avatarUrl = null;
-            String followingUsername = follow.getFollowingUsername();
+        Map<String, FollowListHydrator.Row> rows = followListHydrator.hydrateFollowing(page.getContent(), null);
 
-            if (followingUser != null) {
-                if (followingUser.getProfile() != null) {
-                    avatarUrl = followingUser.getProfile().getAvatar();
-                }
-                followingUsername = followingUser.getUsername();
-            }
-
-            return PostLikeUserResponse.builder()
-                    .id(followingId)
-                    .username(followingUsername)
-                    .avatar(avatarUrl)
-                    .build();
-        });
+        Page<PostLikeUserResponse> dtoPage = page.map(follow -> toUserResponse(rows.get(follow.getFollowingId())));
 
         return PageResponse.of(dtoPage);
     }
@@ -276,21 +185,23 @@ public class FollowServiceImpl implements FollowService {
         User follower = userRepository.findById(followerId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        Optional<Follow> existing = followRepository.findByFollowerIdAndFollowingId(
-                followerId,
-                currentUser.getId()
-        );
+        if (followEdgeStore.unfollow(follower.getId(), currentUser.getId())) {
+            followGraph.onUnfollow(followerId, currentUser.getId());
 
-        if (existing.isPresent()) {
-            followRepository.delete(existing.get());
+            timelineService.invalidate(followerId);
+            followSuggestionService.onFollowChanged(followerId, currentUser.getId());
+        }
+    }
 
-            long newFollowersCount = currentUser.getFollowersCount() - 1;
-            currentUser.setFollowersCount(Math.max(0L, newFollowersCount));
-            userRepository.save(currentUser);
+    // ==============================
+    // HELPERS
+    // ==============================
 
-            long newFollowingCount = follower.getFollowingCount() - 1;
-            follower.setFollowingCount(Math.max(0L, newFollowingCount));
-            userRepository.save(follower);
-        }
+    private PostLikeUserResponse toUserResponse(FollowListHydrator.Row row) {
+        return PostLikeUserResponse.builder()
+                .id(row.id())
+                .username(row.username())
+                .avatar(row.avatarUrl())
+                .build();
     }
 }
@@ -0,0 +1,25 @@
+package com.hoanghuy04.instagrambackend.service.follow;
+
+import com.hoanghuy04.instagrambackend.dto.response.SuggestedUserResponse;
+
+import java.util.List;
+
+/**
+ * "Suggested for you" accounts, precomputed per user from friends-of-friends
+ * in the follow graph.
+ */
+public interface FollowSuggestionService {
+
+    /**
+     * Precomputed suggestions of the current user, best first. Users without a
+     * list yet get an empty one and are queued for the next refresh.
+     */
+    List<SuggestedUserResponse> getSuggestions(int limit);
+
+    /**
+     * A follow edge changed: the follower's stored list drops the followed
+     * account right away, and the follower and their followers are queued for
+     * recomputation.
+     */
+    void onFollowChanged(String followerId, String followingId);
+}
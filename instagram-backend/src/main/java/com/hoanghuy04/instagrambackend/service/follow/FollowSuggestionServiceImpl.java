@@ -0,0 +1,227 @@
+package com.hoanghuy04.instagrambackend.service.follow;
+
+import com.hoanghuy04.instagrambackend.dto.response.SuggestedUserResponse;
+import com.hoanghuy04.instagrambackend.entity.FollowSuggestionList;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.entity.follow.SuggestedUser;
+import com.hoanghuy04.instagrambackend.util.SecurityUtil;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Suggestions are friends-of-friends walked on the in-memory {@link FollowGraph}
+ * (itself built by streaming the follows collection), scored by the number of
+ * followed accounts leading to them plus a bonus for recent posts, and stored
+ * as a top-N list per user. Follow changes queue the affected users for the
+ * incremental refresh; a slower full pass streams user IDs to catch the rest.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FollowSuggestionServiceImpl implements FollowSuggestionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowGraph followGraph;
+    private final FollowListHydrator followListHydrator;
+    private final SecurityUtil securityUtil;
+
+    @Value("${app.follow-suggestions.size:30}")
+    private int listSize;
+
+    @Value("${app.follow-suggestions.max-fanout:500}")
+    private int maxFanout;
+
+    @Value("${app.follow-suggestions.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.follow-suggestions.activity-days:14}")
+    private int activityDays;
+
+    @Value("${app.follow-suggestions.activity-weight:1.0}")
+    private double activityWeight;
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // ==============================
+    // READ
+    // ==============================
+    @Override
+    public List<SuggestedUserResponse> getSuggestions(int limit) {
+        String userId = securityUtil.getCurrentUser().getId();
+
+        FollowSuggestionList stored = mongoTemplate.findById(userId, FollowSuggestionList.class);
+        if (stored == null) {
+            dirty.add(userId);
+            return List.of();
+        }
+
+        List<SuggestedUser> top = stored.getSuggestions().stream()
+                .limit(limit)
+                .toList();
+        Map<String, FollowListHydrator.Row> rows = followListHydrator.hydrate(
+                top.stream().map(SuggestedUser::getUserId).toList(), null);
+
+        return top.stream()
+                .filter(suggestion -> rows.containsKey(suggestion.getUserId()))
+                .map(suggestion -> {
+                    FollowListHydrator.Row row = rows.get(suggestion.getUserId());
+                    return SuggestedUserResponse.builder()
+                            .id(row.id())
+                            .username(row.username())
+                            .avatar(row.avatarUrl())
+                            .mutualCount(suggestion.getMutualCount())
+                            .build();
+                })
+                .toList();
+    }
+
+    // ==============================
+    // WRITE
+    // ==============================
+    @Override
+    public void onFollowChanged(String followerId, String followingId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(followerId)),
+                new Update().pull("suggestions", Query.query(Criteria.where("userId").is(followingId)).getQueryObject()),
+                FollowSuggestionList.class
+        );
+        dirty.add(followerId);
+        // their friends-of-friends go through the follower
+        dirty.addAll(followGraph.followers(followerId, maxFanout));
+    }
+
+    /**
+     * Recompute users whose neighbourhood changed, a batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.follow-suggestions.refresh-interval-ms:60000}")
+    public void refreshDirty() {
+        if (dirty.isEmpty() || !followGraph.isLoaded()) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(batchSize);
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            batch.add(it.next());
+            it.remove();
+        }
+        try {
+            refresh(batch);
+        } catch (Exception e) {
+            dirty.addAll(batch);
+            log.error("Failed to refresh follow suggestions for {} users, will retry", batch.size(), e);
+        }
+    }
+
+    /**
+     * Recompute every active user, streaming IDs from the users collection.
+     */
+    @Scheduled(initialDelayString = "${app.follow-suggestions.full-refresh-interval-ms:86400000}",
+            fixedDelayString = "${app.follow-suggestions.full-refresh-interval-ms:86400000}")
+    public void refreshAll() {
+        if (!followGraph.isLoaded()) {
+            return;
+        }
+        Query active = Query.query(Criteria.where("isActive").is(true));
+        active.fields().include("_id");
+
+        List<String> batch = new ArrayList<>(batchSize);
+        int[] refreshed = {0};
+        try (var users = mongoTemplate.stream(active, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            users.forEach(doc -> {
+                batch.add(doc.get("_id").toString());
+                if (batch.size() == batchSize) {
+                    refresh(batch);
+                    refreshed[0] += batch.size();
+                    batch.clear();
+                }
+            });
+        }
+        refresh(batch);
+        refreshed[0] += batch.size();
+        log.info("Refreshed follow suggestions for {} users", refreshed[0]);
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+
+    /**
+     * Score the candidates of a batch of users with one activity aggregation
+     * for the whole batch, then write the lists with one bulk.
+     */
+    private void refresh(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, Integer>> candidatesByUser = new LinkedHashMap<>();
+        Set<String> pool = new HashSet<>();
+        for (String userId : userIds) {
+            // Only the strongest few times N are worth an activity lookup
+            Map<String, Integer> candidates = followGraph.friendsOfFriends(userId, maxFanout).entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(listSize * 3L)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            candidatesByUser.put(userId, candidates);
+            pool.addAll(candidates.keySet());
+        }
+
+        Map<String, Long> recentPosts = recentPostCounts(pool);
+        LocalDateTime now = LocalDateTime.now();
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FollowSuggestionList.class);
+        candidatesByUser.forEach((userId, candidates) -> {
+            List<SuggestedUser> top = candidates.entrySet().stream()
+                    .map(entry -> {
+                        long posts = recentPosts.getOrDefault(entry.getKey(), 0L);
+                        return SuggestedUser.builder()
+                                .userId(entry.getKey())
+                                .mutualCount(entry.getValue())
+                                .recentPosts(posts)
+                                .score(entry.getValue() + activityWeight * Math.log1p(posts))
+                                .build();
+                    })
+                    .sorted(Comparator.comparingDouble(SuggestedUser::getScore).reversed()
+                            .thenComparing(SuggestedUser::getUserId))
+                    .limit(listSize)
+                    .toList();
+            bulk.upsert(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().set("suggestions", top).set("computedAt", now));
+        });
+        bulk.execute();
+    }
+
+    private Map<String, Long> recentPostCounts(Set<String> authorIds) {
+        if (authorIds.isEmpty()) {
+            return Map.of();
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("author").in(authorIds.stream().map(MongoDocs::toObjectId).toList())
+                        .and("createdAt").gte(LocalDateTime.now().minusDays(activityDays))),
+                Aggregation.group("author").count().as("posts")
+        );
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Post.class), Document.class)
+                .getMappedResults().stream()
+                .collect(Collectors.toMap(
+                        doc -> doc.get("_id").toString(),
+                        doc -> ((Number) doc.get("posts")).longValue()
+                ));
+    }
+}
@@ -2,7 +2,9 @@ package com.hoanghuy04.instagrambackend.service.hashtag;
 
 import com.hoanghuy04.instagrambackend.dto.request.HashtagRequest;
 import com.hoanghuy04.instagrambackend.dto.response.HashtagResponse;
+import com.hoanghuy04.instagrambackend.entity.Hashtag;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface HashtagService {
@@ -15,5 +17,22 @@ public interface HashtagService {
 
     HashtagResponse increaseUsage(String tag);
 
+    /**
+     * Normalize tags and load their documents, creating missing ones,
+     * with one bulk upsert and one {@code $in} query. Usage counters are not touched.
+     */
+    List<Hashtag> findOrCreateAll(Collection<String> rawTags);
+
+    /**
+     * Increment the usage counter of every given tag with a single update.
+     */
+    void increaseUsage(Collection<String> tags);
+
+    /**
+     * Count a post's use of the given tags at most once per (post, tag), so a
+     * retried caller does not count them twice.
+     */
+    void increaseUsage(String postId, Collection<String> tags);
+
     List<HashtagResponse> getTrending(int limit);
 }
@@ -3,18 +3,31 @@ package com.hoanghuy04.instagrambackend.service.hashtag;
 import com.hoanghuy04.instagrambackend.dto.request.HashtagRequest;
 import com.hoanghuy04.instagrambackend.dto.response.HashtagResponse;
 import com.hoanghuy04.instagrambackend.entity.Hashtag;
+import com.hoanghuy04.instagrambackend.entity.HashtagUsage;
 import com.hoanghuy04.instagrambackend.repository.HashtagRepository;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class HashtagServiceImpl implements HashtagService {
 
+    private static final int DUPLICATE_KEY = 11000;
+
     private final HashtagRepository hashtagRepository;
+    private final MongoTemplate mongoTemplate;
 
     @Override
     public HashtagResponse createHashtag(HashtagRequest request) {
@@ -60,6 +73,87 @@ public class HashtagServiceImpl implements HashtagService {
         return toResponse(hashtag);
     }
 
+    @Override
+    public List<Hashtag> findOrCreateAll(Collection<String> rawTags) {
+        List<String> tags = rawTags == null ? List.of() : rawTags.stream()
+                .filter(Objects::nonNull)
+                .map(tag -> tag.trim().toLowerCase())
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .toList();
+        if (tags.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Hashtag.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (String tag : tags) {
+            bulk.upsert(
+                    Query.query(Criteria.where("tag").is(tag)),
+                    new Update()
+                            .setOnInsert("usageCount", 0L)
+                            .setOnInsert("createdAt", now)
+                            .setOnInsert("updatedAt", now)
+            );
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Concurrent upserts of the same new tag race on the unique index; the loser's row exists anyway
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+
+        Map<String, Hashtag> byTag = hashtagRepository.findByTagIn(tags).stream()
+                .collect(Collectors.toMap(Hashtag::getTag, h -> h));
+        return tags.stream()
+                .map(byTag::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void increaseUsage(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("tag").in(tags)),
+                new Update().inc("usageCount", 1).set("updatedAt", LocalDateTime.now()),
+                Hashtag.class
+        );
+    }
+
+    @Override
+    public void increaseUsage(String postId, Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return;
+        }
+        // Marker first: a crash before the increment loses one count rather than doubling it
+        List<String> fresh = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (String tag : tags) {
+            try {
+                UpdateResult marked = mongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(postId + ":" + tag)),
+                        new Update()
+                                .setOnInsert("postId", postId)
+                                .setOnInsert("tag", tag)
+                                .setOnInsert("createdAt", now),
+                        HashtagUsage.class
+                );
+                if (marked.getUpsertedId() != null) {
+                    fresh.add(tag);
+                }
+            } catch (DuplicateKeyException e) {
+                // counted by a concurrent run
+            }
+        }
+        increaseUsage(fresh);
+    }
+
     @Override
     public List<HashtagResponse> getTrending(int limit) {
         return hashtagRepository.findAll().stream()
@@ -2,6 +2,7 @@ package com.hoanghuy04.instagrambackend.service.mention;
 
 import com.hoanghuy04.instagrambackend.dto.response.MentionUserResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
+import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -14,4 +15,11 @@ import java.util.List;
  */
 public interface MentionService {
     PageResponse<MentionUserResponse> search(String query, Pageable pageable);
+
+    /**
+     * Replace the mention rows of a target with the @usernames found in its text.
+     *
+     * @return IDs of the mentioned users that exist
+     */
+    List<String> syncMentions(MentionTargetType targetType, String targetId, String text, String createdByUserId);
 }
@@ -2,10 +2,13 @@ package com.hoanghuy04.instagrambackend.service.mention;
 
 import com.hoanghuy04.instagrambackend.dto.response.MentionUserResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
-import com.hoanghuy04.instagrambackend.entity.Follow;
+import com.hoanghuy04.instagrambackend.entity.Mention;
 import com.hoanghuy04.instagrambackend.entity.User;
-import com.hoanghuy04.instagrambackend.repository.FollowRepository;
+import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import com.hoanghuy04.instagrambackend.repository.MentionRepository;
 import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.util.MentionUtil;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,7 +26,9 @@ import java.util.stream.Collectors;
 public class MentionServiceImpl implements MentionService {
 
     private final UserRepository userRepository;
-    private final FollowRepository followRepository;
+    private final FollowGraph followGraph;
+    private final MentionRepository mentionRepository;
+    private final MentionUtil mentionUtil;
     private final SecurityUtil securityUtil;
 
     @Override
@@ -64,15 +69,9 @@ public class MentionServiceImpl implements MentionService {
 
         List<User> candidates = new ArrayList<>(merged.values());
 
-        Set<String> followingIds = followRepository.findByFollowerId(currentUserId)
-                .stream()
-                .map(Follow::getFollowingId)
-                .collect(Collectors.toSet());
+        Set<String> followingIds = followGraph.followingSet(currentUserId);
 
-        Set<String> followerIds = followRepository.findByFollowingId(currentUserId)
-                .stream()
-                .map(Follow::getFollowerId)
-                .collect(Collectors.toSet());
+        Set<String> followerIds = followGraph.followersSet(currentUserId);
 
         List<User> sorted = candidates.stream()
                 .sorted((a, b) -> Double.compare(
@@ -125,6 +124,39 @@ public class MentionServiceImpl implements MentionService {
                 .build();
     }
 
+    @Override
+    public List<String> syncMentions(
+            MentionTargetType targetType,
+            String targetId,
+            String text,
+            String createdByUserId
+    ) {
+        // Remove old mentions
+        mentionRepository.deleteByTargetTypeAndTargetId(targetType, targetId);
+
+        List<String> usernames = mentionUtil.extractMentionUsernames(text);
+        if (usernames.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<User> users = userRepository.findByUsernameIn(usernames);
+        if (users.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Mention> mentions = users.stream()
+                .map(u -> Mention.builder()
+                        .targetType(targetType)
+                        .targetId(targetId)
+                        .createdByUserId(createdByUserId)
+                        .mentionedUserId(u.getId())
+                        .build())
+                .toList();
+
+        mentionRepository.saveAll(mentions);
+        return users.stream().map(User::getId).toList();
+    }
+
     private double score(
             User user,
             String qNorm,
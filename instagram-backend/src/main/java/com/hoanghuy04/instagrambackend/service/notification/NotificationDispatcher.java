@@ -0,0 +1,356 @@
+package com.hoanghuy04.instagrambackend.service.notification;
+
+import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
+import com.hoanghuy04.instagrambackend.dto.response.NotificationResponse;
+import com.hoanghuy04.instagrambackend.entity.Notification;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.enums.NotificationType;
+import com.hoanghuy04.instagrambackend.mapper.NotificationMapper;
+import com.hoanghuy04.instagrambackend.repository.NotificationRepository;
+import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.service.FileService;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import com.hoanghuy04.instagrambackend.service.websocket.NotificationWebSocketService;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous notification dispatch.
+ * Callers enqueue a built notification and return; a small pool of worker
+ * threads drains the bounded queue in batches. Each batch is inserted with one
+ * {@code insertMany}, actors and post thumbnails are resolved with one
+ * {@code $in} each, and the results are pushed over STOMP. Likes are folded
+ * into rolling per-window documents instead and pushed on a debounce tick.
+ * When the queue is full the caller dispatches its own notification, so
+ * back-pressure slows producers down rather than dropping notifications.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private static final Set<NotificationType> AGGREGATED = EnumSet.of(
+            NotificationType.LIKE_POST,
+            NotificationType.LIKE_COMMENT
+    );
+
+    /**
+     * At most one per (receiver, post, type); a retried producer must not repeat it.
+     */
+    private static final Set<NotificationType> UNIQUE_PER_POST = EnumSet.of(NotificationType.TAG_IN_POST);
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final FollowGraph followGraph;
+    private final NotificationMapper notificationMapper;
+    private final FileService fileService;
+    private final NotificationWebSocketService notificationWebSocketService;
+
+    @Value("${app.notifications.dispatch-queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.dispatch-workers:2}")
+    private int workerCount;
+
+    @Value("${app.notifications.dispatch-batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notifications.aggregation-window-ms:3600000}")
+    private long aggregationWindowMs;
+
+    @Value("${app.notifications.latest-actors:3}")
+    private int latestActors;
+
+    private BlockingQueue<Notification> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Aggregated notifications changed since the last push tick.
+     */
+    private final Set<String> pendingPushes = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "notification-dispatch-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public void enqueue(Notification notification) {
+        if (!queue.offer(notification)) {
+            log.debug("Notification queue full, dispatching on caller thread");
+            dispatch(List.of(notification));
+        }
+    }
+
+    /**
+     * Push each touched aggregated notification once per tick, with its latest count.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.push-interval-ms:2000}")
+    public void flushAggregatedPushes() {
+        if (pendingPushes.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>();
+        Iterator<String> it = pendingPushes.iterator();
+        while (it.hasNext()) {
+            ids.add(it.next());
+            it.remove();
+        }
+        push(notificationRepository.findAllById(ids));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<Notification> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        dispatch(rest);
+        flushAggregatedPushes();
+    }
+
+    // ==============================
+    // WORKER
+    // ==============================
+    private void work() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // notifications are best effort; never let one bad batch stop the worker
+                log.error("Failed to dispatch {} notifications", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Notification> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Notification> single = new ArrayList<>();
+        List<Notification> inserted = new ArrayList<>();
+        for (Notification notification : batch) {
+            if (AGGREGATED.contains(notification.getType())) {
+                // one failed upsert must not cost the rest of the batch
+                try {
+                    aggregate(notification);
+                } catch (Exception e) {
+                    log.warn("Failed to aggregate {} notification for {}: {}",
+                            notification.getType(), notification.getReceiverId(), e.getMessage());
+                }
+            } else if (UNIQUE_PER_POST.contains(notification.getType())) {
+                try {
+                    if (insertIfAbsent(notification)) {
+                        inserted.add(notification);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to insert {} notification for {}: {}",
+                            notification.getType(), notification.getReceiverId(), e.getMessage());
+                }
+            } else {
+                single.add(notification);
+            }
+        }
+        if (!single.isEmpty()) {
+            inserted.addAll(notificationRepository.insert(single));
+        }
+        push(inserted);
+    }
+
+    /**
+     * Fold an actor into the rolling notification of (receiver, type, post,
+     * comment) for the current window, creating it if needed. The document is
+     * bumped to unread and to the top; its push is left to the next debounce tick.
+     */
+    private void aggregate(Notification n) {
+        long window = n.getCreatedAt().toEpochMilli() / aggregationWindowMs;
+        String groupKey = String.join(":", n.getReceiverId(), n.getType().name(), String.valueOf(n.getPostId()),
+                String.valueOf(n.getCommentId()), String.valueOf(window));
+        String senderId = n.getSenderId();
+
+        Document previousActors = new Document("$ifNull", List.of("$latestActorIds", List.of()));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("receiverId").toValue(n.getReceiverId())
+                .set("type").toValue(n.getType().name())
+                .set("postId").toValue(n.getPostId())
+                .set("senderId").toValue(senderId)
+                .set("read").toValue(false)
+                .set("createdAt").toValue(Date.from(n.getCreatedAt()))
+                // repeat actors are only recognised among the latest ones, so the count is approximate
+                .set("actorCount").toValue(new Document("$cond", List.of(
+                        new Document("$in", List.of(senderId, previousActors)),
+                        new Document("$ifNull", List.of("$actorCount", 1)),
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$actorCount", 0)), 1))
+                )))
+                .set("latestActorIds").toValue(new Document("$slice", List.of(
+                        new Document("$concatArrays", List.of(
+                                List.of(senderId),
+                                new Document("$filter", new Document("input", previousActors)
+                                        .append("cond", new Document("$ne", List.of("$$this", senderId))))
+                        )),
+                        latestActors
+                )));
+        if (n.getCommentId() != null) {
+            update = update.set("commentId").toValue(n.getCommentId());
+        }
+
+        Query query = Query.query(Criteria.where("groupKey").is(groupKey));
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        Notification saved;
+        try {
+            saved = mongoTemplate.findAndModify(query, update, options, Notification.class);
+        } catch (DuplicateKeyException e) {
+            // a concurrent upsert created the window's document; update it instead
+            saved = mongoTemplate.findAndModify(query, update, options, Notification.class);
+        }
+        if (saved != null) {
+            pendingPushes.add(saved.getId());
+        }
+    }
+
+    /**
+     * Insert the notification unless one already exists for its (receiver,
+     * post, type); backed by a partial unique index, so queued duplicates and
+     * concurrent workers collapse to one document.
+     *
+     * @return true if this call inserted it, with its ID set
+     */
+    private boolean insertIfAbsent(Notification n) {
+        Query query = Query.query(Criteria.where("receiverId").is(n.getReceiverId())
+                .and("postId").is(n.getPostId())
+                .and("type").is(n.getType().name()));
+        Update update = new Update()
+                .setOnInsert("senderId", n.getSenderId())
+                .setOnInsert("read", n.isRead())
+                .setOnInsert("createdAt", n.getCreatedAt());
+        UpdateResult result;
+        try {
+            result = mongoTemplate.upsert(query, update, Notification.class);
+        } catch (DuplicateKeyException e) {
+            // a concurrent upsert of the same notification won the insert
+            return false;
+        }
+        if (result.getUpsertedId() == null) {
+            return false;
+        }
+        n.setId(result.getUpsertedId().asObjectId().getValue().toHexString());
+        return true;
+    }
+
+    /**
+     * Map and push a set of saved notifications, resolving their actors and
+     * post thumbnails once for the whole set.
+     */
+    private void push(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        Set<String> actorIds = notifications.stream()
+                .map(Notification::getSenderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, User> actors = userRepository.findAllById(actorIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+
+        Map<String, String> thumbnails = postThumbnails(notifications.stream()
+                .map(Notification::getPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        for (Notification n : notifications) {
+            try {
+                NotificationResponse dto = notificationMapper.toNotificationResponse(
+                        n,
+                        actors.get(n.getSenderId()),
+                        followGraph.isFollowing(n.getReceiverId(), n.getSenderId()),
+                        n.getPostId() != null ? thumbnails.get(n.getPostId()) : null
+                );
+                notificationWebSocketService.pushNotification(n.getReceiverId(), dto);
+            } catch (Exception e) {
+                log.warn("Failed to push notification {}: {}", n.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Thumbnail URL (first media file) of each post, by post ID. Posts are read
+     * as raw documents carrying only their media IDs, so authors are not
+     * resolved, and all first media files are resolved with one query. Posts
+     * without media are left out.
+     */
+    Map<String, String> postThumbnails(Set<String> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = Query.query(Criteria.where("_id").in(postIds.stream().map(MongoDocs::toObjectId).toList()));
+        query.fields().include("mediaFileIds");
+
+        Map<String, String> firstMediaIds = new HashMap<>();
+        for (Document doc : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Post.class))) {
+            List<String> mediaFileIds = doc.getList("mediaFileIds", String.class, List.of());
+            if (!mediaFileIds.isEmpty()) {
+                firstMediaIds.put(doc.get("_id").toString(), mediaFileIds.get(0));
+            }
+        }
+
+        Map<String, MediaFileResponse> media = fileService.getMediaFileResponseMap(firstMediaIds.values());
+        Map<String, String> thumbnails = new HashMap<>();
+        firstMediaIds.forEach((postId, mediaId) -> {
+            MediaFileResponse file = media.get(mediaId);
+            if (file != null) {
+                thumbnails.put(postId, file.getUrl());
+            }
+        });
+        return thumbnails;
+    }
+}
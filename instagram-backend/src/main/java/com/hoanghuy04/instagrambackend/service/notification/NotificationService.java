@@ -4,18 +4,26 @@ import com.hoanghuy04.instagrambackend.dto.response.NotificationResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
 import org.springframework.data.domain.Pageable;
 
+/**
+ * Notifications. The create methods only enqueue: saving and the realtime push
+ * happen on the dispatch workers, off the caller's request.
+ */
 public interface NotificationService {
 
-    NotificationResponse createFollowNotification(String receiverId);
+    void createFollowNotification(String receiverId);
 
-    NotificationResponse createLikePostNotification(String receiverId, String postId);
+    // Likes are aggregated per receiver and post/comment within a time window
+    void createLikePostNotification(String receiverId, String postId);
 
-    NotificationResponse createLikeCommentNotification(String receiverId, String postId, String commentId);
+    void createLikeCommentNotification(String receiverId, String postId, String commentId);
 
-    NotificationResponse createCommentPostNotification(String receiverId, String postId, String message);
+    void createCommentPostNotification(String receiverId, String postId, String message);
+
+    // TAG @ trong caption bài viết; sender truyền vào vì chạy ở background (không có security context)
+    void createTagInPostNotification(String senderId, String receiverId, String postId);
 
     // TAG @ trong comment
-    NotificationResponse createTagInCommentNotification(String receiverId, String postId, String commentId);
+    void createTagInCommentNotification(String receiverId, String postId, String commentId);
 
     PageResponse<NotificationResponse> getUserNotifications(Pageable pageable);
 
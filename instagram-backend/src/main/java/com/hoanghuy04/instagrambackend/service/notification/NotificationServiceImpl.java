@@ -2,17 +2,13 @@ package com.hoanghuy04.instagrambackend.service.notification;
 
 import com.hoanghuy04.instagrambackend.dto.response.NotificationResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
-import com.hoanghuy04.instagrambackend.entity.Follow;
 import com.hoanghuy04.instagrambackend.entity.Notification;
-import com.hoanghuy04.instagrambackend.entity.Post;
 import com.hoanghuy04.instagrambackend.entity.User;
 import com.hoanghuy04.instagrambackend.enums.NotificationType;
 import com.hoanghuy04.instagrambackend.mapper.NotificationMapper;
-import com.hoanghuy04.instagrambackend.repository.FollowRepository;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
 import com.hoanghuy04.instagrambackend.repository.NotificationRepository;
-import com.hoanghuy04.instagrambackend.repository.PostRepository;
 import com.hoanghuy04.instagrambackend.repository.UserRepository;
-import com.hoanghuy04.instagrambackend.service.websocket.NotificationWebSocketService;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,20 +28,19 @@ public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private final PostRepository postRepository;
-    private final FollowRepository followRepository;
+    private final FollowGraph followGraph;
     private final NotificationMapper notificationMapper;
-    private final NotificationWebSocketService notificationWebSocketService;
     private final SecurityUtil securityUtil;
+    private final NotificationDispatcher notificationDispatcher;
 
     // ========================
     // CREATE
     // ========================
 
     @Override
-    public NotificationResponse createFollowNotification(String receiverId) {
+    public void createFollowNotification(String receiverId) {
         String senderId = securityUtil.getCurrentUserId();
-        if (senderId.equals(receiverId)) return null;
+        if (senderId.equals(receiverId)) return;
 
         Notification n = Notification.builder()
                 .senderId(senderId)
@@ -55,14 +50,13 @@ public class NotificationServiceImpl implements NotificationService {
                 .read(false)
                 .build();
 
-        Notification saved = notificationRepository.save(n);
-        return pushRealtime(saved);
+        notificationDispatcher.enqueue(n);
     }
 
     @Override
-    public NotificationResponse createLikePostNotification(String receiverId, String postId) {
+    public void createLikePostNotification(String receiverId, String postId) {
         String senderId = securityUtil.getCurrentUserId();
-        if (senderId.equals(receiverId)) return null;
+        if (senderId.equals(receiverId)) return;
 
         Notification n = Notification.builder()
                 .senderId(senderId)
@@ -73,14 +67,14 @@ public class NotificationServiceImpl implements NotificationService {
                 .read(false)
                 .build();
 
-        Notification saved = notificationRepository.save(n);
-        return pushRealtime(saved);
+        // aggregated with other likes of the same target by the dispatcher
+        notificationDispatcher.enqueue(n);
     }
 
     @Override
-    public NotificationResponse createLikeCommentNotification(String receiverId, String postId, String commentId) {
+    public void createLikeCommentNotification(String receiverId, String postId, String commentId) {
         String senderId = securityUtil.getCurrentUserId();
-        if (senderId.equals(receiverId)) return null;
+        if (senderId.equals(receiverId)) return;
 
         Notification n = Notification.builder()
                 .senderId(senderId)
@@ -92,14 +86,14 @@ public class NotificationServiceImpl implements NotificationService {
                 .read(false)
                 .build();
 
-        Notification saved = notificationRepository.save(n);
-        return pushRealtime(saved);
+        // aggregated with other likes of the same target by the dispatcher
+        notificationDispatcher.enqueue(n);
     }
 
     @Override
-    public NotificationResponse createCommentPostNotification(String receiverId, String postId, String message) {
+    public void createCommentPostNotification(String receiverId, String postId, String message) {
         String senderId = securityUtil.getCurrentUserId();
-        if (senderId.equals(receiverId)) return null;
+        if (senderId.equals(receiverId)) return;
 
         Notification n = Notification.builder()
                 .senderId(senderId)
@@ -111,14 +105,30 @@ public class NotificationServiceImpl implements NotificationService {
                 .read(false)
                 .build();
 
-        Notification saved = notificationRepository.save(n);
-        return pushRealtime(saved);
+        notificationDispatcher.enqueue(n);
     }
 
     @Override
-    public NotificationResponse createTagInCommentNotification(String receiverId, String postId, String commentId) {
+    public void createTagInPostNotification(String senderId, String receiverId, String postId) {
+        if (senderId.equals(receiverId)) return;
+
+        Notification n = Notification.builder()
+                .senderId(senderId)
+                .receiverId(receiverId)
+                .postId(postId)
+                .type(NotificationType.TAG_IN_POST)
+                .createdAt(Instant.now())
+                .read(false)
+                .build();
+
+        // safe to retry: the dispatcher keeps one TAG_IN_POST per receiver and post
+        notificationDispatcher.enqueue(n);
+    }
+
+    @Override
+    public void createTagInCommentNotification(String receiverId, String postId, String commentId) {
         String senderId = securityUtil.getCurrentUserId();
-        if (senderId.equals(receiverId)) return null;
+        if (senderId.equals(receiverId)) return;
 
         Notification n = Notification.builder()
                 .senderId(senderId)
@@ -130,8 +140,7 @@ public class NotificationServiceImpl implements NotificationService {
                 .read(false)
                 .build();
 
-        Notification saved = notificationRepository.save(n);
-        return pushRealtime(saved);
+        notificationDispatcher.enqueue(n);
     }
 
     // ========================
@@ -156,28 +165,23 @@ public class NotificationServiceImpl implements NotificationService {
                 .stream()
                 .collect(Collectors.toMap(User::getId, u -> u));
 
-        // load posts
+        // load post thumbnails
         Set<String> postIds = notifications.stream()
                 .map(Notification::getPostId)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
 
-        Map<String, Post> postMap = postRepository.findAllById(postIds)
-                .stream()
-                .collect(Collectors.toMap(Post::getId, p -> p));
+        Map<String, String> thumbnails = notificationDispatcher.postThumbnails(postIds);
 
         // current user đang follow những ai
-        Set<String> followingIds = followRepository.findByFollowerId(userId)
-                .stream()
-                .map(Follow::getFollowingId)
-                .collect(Collectors.toSet());
+        Set<String> followingIds = followGraph.followingSet(userId);
 
         Page<NotificationResponse> dtoPage = page.map(n ->
                 notificationMapper.toNotificationResponse(
                         n,
                         actorMap.get(n.getSenderId()),
                         followingIds.contains(n.getSenderId()),
-                        n.getPostId() != null ? postMap.get(n.getPostId()) : null
+                        n.getPostId() != null ? thumbnails.get(n.getPostId()) : null
                 )
         );
 
@@ -222,30 +226,4 @@ public class NotificationServiceImpl implements NotificationService {
             notificationRepository.saveAll(unreadNotifications);
         }
     }
-
-    // ========================
-    // Helper: push realtime
-    // ========================
-
-    private NotificationResponse pushRealtime(Notification n) {
-        User actor = userRepository.findById(n.getSenderId()).orElse(null);
-
-        Post post = null;
-        if (n.getPostId() != null) {
-            post = postRepository.findById(n.getPostId()).orElse(null);
-        }
-
-        boolean isFollowingBack = followRepository
-                .existsByFollowerIdAndFollowingId(n.getReceiverId(), n.getSenderId());
-
-        NotificationResponse dto = notificationMapper.toNotificationResponse(
-                n,
-                actor,
-                isFollowingBack,
-                post
-        );
-
-        notificationWebSocketService.pushNotification(n.getReceiverId(), dto);
-        return dto;
-    }
 }
@@ -0,0 +1,147 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
+import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
+import com.hoanghuy04.instagrambackend.service.counter.CounterField;
+import com.hoanghuy04.instagrambackend.service.counter.CounterService;
+import com.hoanghuy04.instagrambackend.service.explore.ExploreService;
+import com.hoanghuy04.instagrambackend.service.websocket.CommentStreamService;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based comment deletion.
+ * A batch of comments is expanded to whole threads (top-level comments take
+ * their replies along, found by rootId), then likes, mentions and comments are
+ * removed with one {@code $in} delete each, and counters get one {@code $inc}
+ * per affected post and surviving parent. Round trips per batch do not grow
+ * with the number of replies.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentBulkDeleter {
+
+    private static final String COMMENTS = "comments";
+
+    private final MongoTemplate mongoTemplate;
+    private final CounterService counterService;
+    private final CommentRanker commentRanker;
+    private final PostCache postCache;
+    private final ExploreService exploreService;
+    private final CommentStreamService commentStreamService;
+
+    @Value("${app.comments.delete-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Delete comments and, for top-level ones, their threads.
+     *
+     * @param commentIds IDs of the comments to delete
+     * @return number of comments deleted, replies included
+     */
+    public long delete(Collection<String> commentIds) {
+        if (commentIds.isEmpty()) {
+            return 0;
+        }
+        Query targets = Query.query(Criteria.where("_id").in(commentIds.stream().map(MongoDocs::toObjectId).toList()));
+        targets.fields().include("post").include("parentComment");
+        return purge(mongoTemplate.find(targets, Document.class, COMMENTS));
+    }
+
+    /**
+     * Moderation: remove every comment written by a user, across posts,
+     * in batches of {@code app.comments.delete-batch-size}.
+     *
+     * @param userId the author
+     * @return number of comments deleted, replies of their threads included
+     */
+    public long deleteByAuthor(String userId) {
+        Query byAuthor = Query.query(Criteria.where("author").is(MongoDocs.toObjectId(userId))).limit(batchSize);
+        byAuthor.fields().include("post").include("parentComment");
+
+        long deleted = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(byAuthor, Document.class, COMMENTS)).isEmpty()) {
+            deleted += purge(batch);
+        }
+        log.info("Removed {} comments by user {}", deleted, userId);
+        return deleted;
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private long purge(List<Document> targets) {
+        if (targets.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, Document> doomed = new LinkedHashMap<>();
+        targets.forEach(doc -> doomed.put(doc.get("_id"), doc));
+
+        List<Object> rootIds = targets.stream()
+                .filter(doc -> doc.get("parentComment") == null)
+                .map(doc -> doc.get("_id"))
+                .toList();
+        if (!rootIds.isEmpty()) {
+            Query replies = Query.query(Criteria.where("rootId").in(rootIds));
+            replies.fields().include("post").include("parentComment");
+            mongoTemplate.find(replies, Document.class, COMMENTS).forEach(doc -> doomed.putIfAbsent(doc.get("_id"), doc));
+        }
+
+        List<Object> ids = new ArrayList<>(doomed.keySet());
+        List<String> targetIds = ids.stream().map(Object::toString).toList();
+
+        mongoTemplate.remove(Query.query(Criteria.where("targetType").is(LikeTargetType.COMMENT.name())
+                .and("targetId").in(targetIds)), "likes");
+        mongoTemplate.remove(Query.query(Criteria.where("targetType").is(MentionTargetType.COMMENT.name())
+                .and("targetId").in(targetIds)), "mentions");
+        long deleted = mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), COMMENTS).getDeletedCount();
+
+        adjustCounters(doomed);
+        return deleted;
+    }
+
+    /**
+     * One decrement per post, and one per surviving parent of a deleted reply;
+     * live viewers of each post are told which comments went away.
+     */
+    private void adjustCounters(Map<Object, Document> doomed) {
+        Map<String, Long> perPost = doomed.values().stream()
+                .filter(doc -> doc.get("post") != null)
+                .collect(Collectors.groupingBy(doc -> doc.get("post").toString(), Collectors.counting()));
+        Map<String, Long> perParent = doomed.values().stream()
+                .filter(doc -> doc.get("parentComment") != null && !doomed.containsKey(doc.get("parentComment")))
+                .collect(Collectors.groupingBy(doc -> doc.get("parentComment").toString(), Collectors.counting()));
+
+        doomed.values().stream()
+                .filter(doc -> doc.get("post") != null)
+                .collect(Collectors.groupingBy(doc -> doc.get("post").toString(),
+                        Collectors.mapping(doc -> doc.get("_id").toString(), Collectors.toList())))
+                .forEach(commentStreamService::publishDeleted);
+
+        perPost.forEach((postId, count) -> {
+            counterService.add(CounterField.POST_COMMENTS, postId, -count);
+            postCache.adjustCounters(postId, 0, -count);
+            exploreService.onEngagement(postId, 0, -count);
+        });
+        perParent.forEach((parentId, count) -> {
+            counterService.increment(CounterField.COMMENT_REPLIES, parentId, -count);
+            commentRanker.rescore(parentId);
+        });
+    }
+}
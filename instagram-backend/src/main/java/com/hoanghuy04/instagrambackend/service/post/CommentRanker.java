@@ -0,0 +1,137 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the "top comments" rank score stored on each comment.
+ * <p>
+ * {@code rankScore = log10(1 + likes * likeWeight + replies * replyWeight) + rankBase}
+ * where {@code rankBase} is fixed at creation: creation time divided by the
+ * decay period (a comment one period newer needs 10x the engagement to tie)
+ * plus a bonus when the post author wrote it. Only the engagement part
+ * changes, and it is recomputed server-side from the stored counters with a
+ * pipeline update, so concurrent likes cannot leave a stale score behind.
+ * Reads then walk the post_rank_id_idx index instead of sorting at query time.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentRanker {
+
+    private static final String COMMENTS = "comments";
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.comments.rank.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${app.comments.rank.reply-weight:2.0}")
+    private double replyWeight;
+
+    @Value("${app.comments.rank.post-author-bonus:1.0}")
+    private double postAuthorBonus;
+
+    @Value("${app.comments.rank.decay-seconds:45000}")
+    private long decaySeconds;
+
+    /**
+     * Fixed part of the score of a new comment.
+     */
+    public double baseScore(LocalDateTime createdAt, boolean byPostAuthor) {
+        long epochMillis = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return (double) epochMillis / (decaySeconds * 1000d) + (byPostAuthor ? postAuthorBonus : 0d);
+    }
+
+    /**
+     * Recompute the score of a comment after its likes or replies changed.
+     */
+    public void rescore(String commentId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(commentId))),
+                AggregationUpdate.update().set("rankScore").toValue(scoreExpression("$rankBase")),
+                COMMENTS
+        );
+    }
+
+    /**
+     * Comments that predate ranking get their base and score, one pipeline
+     * update per post so the post-author bonus can be applied.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query missing = Query.query(Criteria.where("rankBase").exists(false)).limit(BACKFILL_BATCH_SIZE);
+        missing.fields().include("post");
+
+        long updated = MongoDocs.backfill(mongoTemplate, COMMENTS, missing, batch -> {
+            Set<Object> postIds = batch.stream()
+                    .map(doc -> doc.get("post"))
+                    .collect(Collectors.toSet());
+
+            Query postsQuery = Query.query(Criteria.where("_id").in(postIds));
+            postsQuery.fields().include("author");
+            Map<Object, Object> authorOfPost = new HashMap<>();
+            mongoTemplate.find(postsQuery, Document.class, "posts")
+                    .forEach(post -> authorOfPost.put(post.get("_id"), post.get("author")));
+
+            long modified = 0;
+            for (Object postId : postIds) {
+                Document base = new Document("$add", List.of(
+                        new Document("$divide", List.of(
+                                new Document("$toLong", new Document("$ifNull", List.of("$createdAt", new Date(0)))),
+                                decaySeconds * 1000d)),
+                        new Document("$cond", List.of(
+                                new Document("$eq", List.of("$author", authorOfPost.get(postId))),
+                                postAuthorBonus,
+                                0d))
+                ));
+                modified += mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("post").is(postId).and("rankBase").exists(false)),
+                        AggregationUpdate.update()
+                                .set("rankBase").toValue(base)
+                                .set("rankScore").toValue(scoreExpression(base)),
+                        COMMENTS
+                ).getModifiedCount();
+            }
+            return modified;
+        });
+
+        if (updated > 0) {
+            log.info("Backfilled rank score on {} comments", updated);
+        }
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private Document scoreExpression(Object base) {
+        Document engagement = new Document("$add", List.of(
+                1,
+                new Document("$multiply", List.of(new Document("$ifNull", List.of("$totalLikes", 0)), likeWeight)),
+                new Document("$multiply", List.of(new Document("$ifNull", List.of("$totalReply", 0)), replyWeight))
+        ));
+        return new Document("$add", List.of(
+                new Document("$log10", new Document("$max", List.of(engagement, 1))),
+                base
+        ));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flat read model of a comment document.
+ * References stay as IDs, so reading a page never dereferences the post,
+ * author or parent of each comment.
+ */
+@Data
+@NoArgsConstructor
+class CommentRow {
+    @Id
+    private String id;
+    private String post;
+    private String author;
+    private String authorUsername;
+    private String authorAvatar;
+    private String text;
+    private long totalLikes;
+    private long totalReply;
+    private boolean pinned;
+    private String parentComment;
+    private String rootId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<CommentRow> replies;
+
+    /**
+     * Top-level comments of the thread, set on rows of a thread page only
+     */
+    private long threadTotal;
+}
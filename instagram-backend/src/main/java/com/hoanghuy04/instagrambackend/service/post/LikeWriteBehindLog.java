@@ -0,0 +1,196 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.entity.Like;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
+import com.hoanghuy04.instagrambackend.service.user.UserService;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind log for post likes.
+ * A toggle records the desired final state (liked / not liked) for a
+ * (user, post) pair in a queue sharded by post ID; a later toggle of the
+ * same pair overwrites it, so like-unlike bursts coalesce to one write or none.
+ * A scheduled flush persists each shard with one unordered bulk of upserts
+ * and deletes, both idempotent, so replaying a failed batch is safe, then
+ * hands the persisted changes to the "liked by" preview.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeWriteBehindLog {
+
+    private final MongoTemplate mongoTemplate;
+    private final PostLikePreviewService likePreviewService;
+    private final UserService userService;
+
+    @Value("${app.likes.write-behind:true}")
+    private boolean writeBehind;
+
+    @Value("${app.likes.shards:16}")
+    private int shardCount;
+
+    private Shard[] shards;
+
+    @PostConstruct
+    void init() {
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Flip the state of a (user, post) pair atomically. The prior state is the
+     * queued or in-flight one if any, else {@code persistedState}; concurrent
+     * toggles of the same pair are serialized, so each sees the other's result.
+     * Written immediately when write-behind is disabled.
+     *
+     * @param persistedState reads the persisted state, only called when nothing is pending
+     * @param onToggled receives the new state while the pair is still locked, so
+     *                  read-side caches see concurrent toggles in the order they happened
+     * @return the new state: true if the post is now liked
+     */
+    public boolean toggle(User user, String postId, BooleanSupplier persistedState, Consumer<Boolean> onToggled) {
+        Shard shard = shardOf(postId);
+        String userSearch = userService.normalizeUsername(user.getUsername());
+        Op op = shard.queued.compute(new Key(user.getId(), postId), (key, queued) -> {
+            boolean prior;
+            if (queued != null) {
+                prior = queued.liked();
+            } else {
+                Op inFlight = shard.inFlight.get(key);
+                prior = inFlight != null ? inFlight.liked() : persistedState.getAsBoolean();
+            }
+            onToggled.accept(!prior);
+            return new Op(!prior, userSearch);
+        });
+        if (!writeBehind) {
+            flush(shard);
+        }
+        return op.liked();
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.flush-interval-ms:50}")
+    public void flush() {
+        for (Shard shard : shards) {
+            flush(shard);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+
+    /**
+     * Move the queued entries to in-flight (an entry overwritten meanwhile stays
+     * queued for the next round), write them, then clear in-flight.
+     * Flushes of a shard are serialized, so writes of a pair stay in order.
+     */
+    private void flush(Shard shard) {
+        synchronized (shard) {
+            flushLocked(shard);
+        }
+    }
+
+    private void flushLocked(Shard shard) {
+        if (shard.queued.isEmpty()) {
+            return;
+        }
+
+        Map<Key, Op> batch = new HashMap<>();
+        for (Map.Entry<Key, Op> entry : shard.queued.entrySet()) {
+            shard.inFlight.put(entry.getKey(), entry.getValue());
+            if (shard.queued.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            } else {
+                shard.inFlight.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(batch);
+        } catch (Exception e) {
+            // put back what has not been superseded by a newer toggle
+            batch.forEach(shard.queued::putIfAbsent);
+            log.error("Failed to flush {} like writes, will retry", batch.size(), e);
+        } finally {
+            batch.forEach(shard.inFlight::remove);
+        }
+    }
+
+    private void write(Map<Key, Op> batch) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class);
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<String>> likedByPost = new HashMap<>();
+        Map<String, List<String>> unlikedByPost = new HashMap<>();
+
+        batch.forEach((key, op) -> {
+            Query query = Query.query(Criteria.where("user").is(MongoDocs.toObjectId(key.userId()))
+                    .and("targetType").is(LikeTargetType.POST)
+                    .and("targetId").is(key.postId()));
+            if (op.liked()) {
+                bulk.upsert(query, new Update()
+                        .setOnInsert("userSearch", op.userSearch())
+                        .setOnInsert("createdAt", now));
+                likedByPost.computeIfAbsent(key.postId(), p -> new ArrayList<>()).add(key.userId());
+            } else {
+                bulk.remove(query);
+                unlikedByPost.computeIfAbsent(key.postId(), p -> new ArrayList<>()).add(key.userId());
+            }
+        });
+        bulk.execute();
+
+        try {
+            likedByPost.forEach(likePreviewService::onLiked);
+            unlikedByPost.forEach(likePreviewService::onUnliked);
+        } catch (Exception e) {
+            // the preview is derived data; never requeue persisted likes for it
+            log.warn("Failed to update like previews: {}", e.getMessage());
+        }
+    }
+
+    private Shard shardOf(String postId) {
+        return shards[Math.floorMod(postId.hashCode(), shards.length)];
+    }
+
+    private record Key(String userId, String postId) {
+    }
+
+    private record Op(boolean liked, String userSearch) {
+    }
+
+    private static final class Shard {
+        private final Map<Key, Op> queued = new ConcurrentHashMap<>();
+        private final Map<Key, Op> inFlight = new ConcurrentHashMap<>();
+    }
+}
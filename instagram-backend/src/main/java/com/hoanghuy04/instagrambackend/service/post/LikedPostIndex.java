@@ -0,0 +1,203 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hoanghuy04.instagrambackend.entity.Like;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
+import com.hoanghuy04.instagrambackend.repository.LikeRepository;
+import com.hoanghuy04.instagrambackend.util.BloomFilter;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-viewer in-memory index of liked posts.
+ * Each viewer gets a Bloom filter of the post IDs they had liked when the
+ * entry was built, plus exact sets of posts liked / unliked since then.
+ * "Did the viewer like post X" is answered from memory for every post the
+ * filter rules out; only filter hits are verified against Mongo, in one query.
+ * Entries are bounded by the filters' total size in bytes and rebuilt after
+ * a while even for active viewers.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikedPostIndex {
+
+    private final LikeRepository likeRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int ENTRY_WEIGHT = 256;
+
+    @Value("${app.liked-index.max-weight-bytes:134217728}")
+    private long maxWeightBytes;
+
+    @Value("${app.liked-index.max-likes-per-viewer:50000}")
+    private int maxLikesPerViewer;
+
+    @Value("${app.liked-index.max-recent-per-viewer:1000}")
+    private int maxRecentPerViewer;
+
+    @Value("${app.liked-index.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.liked-index.expire-after-access-ms:1800000}")
+    private long expireAfterAccessMs;
+
+    @Value("${app.liked-index.expire-after-write-ms:3600000}")
+    private long expireAfterWriteMs;
+
+    private Cache<String, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String viewerId, Entry entry) -> weigh(entry))
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+                // an active viewer's filter is still rebuilt now and then, so it never outgrows its sizing
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .build();
+    }
+
+    /**
+     * Which of the given posts the viewer has liked.
+     *
+     * @param viewer the current user
+     * @param postIds post IDs of the page
+     * @return the liked subset
+     */
+    public Set<String> findLiked(User viewer, Collection<String> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Entry entry = entries.get(viewer.getId(), this::load);
+        if (entry.bloom == null) {
+            // Heavy liker: the filter would be too large, ask Mongo directly
+            return queryLiked(viewer, postIds);
+        }
+
+        Set<String> liked = new HashSet<>();
+        List<String> toVerify = new ArrayList<>();
+        for (String postId : postIds) {
+            if (entry.recentLiked.contains(postId)) {
+                liked.add(postId);
+            } else if (!entry.recentUnliked.contains(postId) && entry.bloom.mightContain(postId)) {
+                toVerify.add(postId);
+            }
+        }
+
+        if (!toVerify.isEmpty()) {
+            liked.addAll(queryLiked(viewer, toVerify));
+        }
+        return liked;
+    }
+
+    /**
+     * Whether the viewer has liked a single post.
+     *
+     * @param viewer the current user
+     * @param postId the post ID
+     * @return true if liked
+     */
+    public boolean isLiked(User viewer, String postId) {
+        return findLiked(viewer, List.of(postId)).contains(postId);
+    }
+
+    /**
+     * Record a like or unlike. Called from inside {@link LikeWriteBehindLog#toggle},
+     * so toggles of the same pair are recorded in order.
+     */
+    public void onToggled(String viewerId, String postId, boolean liked) {
+        record(viewerId, postId, liked);
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private void record(String viewerId, String postId, boolean liked) {
+        Entry entry = entries.getIfPresent(viewerId);
+        if (entry == null) {
+            return;
+        }
+        if (liked) {
+            entry.recentUnliked.remove(postId);
+            entry.recentLiked.add(postId);
+        } else {
+            entry.recentLiked.remove(postId);
+            entry.recentUnliked.add(postId);
+        }
+        if (entry.recentLiked.size() + entry.recentUnliked.size() > maxRecentPerViewer) {
+            entries.invalidate(viewerId);
+        }
+    }
+
+    /**
+     * Build a viewer's filter from their POST likes, reading only the target IDs.
+     */
+    private Entry load(String viewerId) {
+        Object userRef = MongoDocs.toObjectId(viewerId);
+        Query query = Query.query(Criteria.where("user").is(userRef)
+                        .and("targetType").is(LikeTargetType.POST.name()))
+                .limit(maxLikesPerViewer + 1);
+        query.fields().include("targetId").exclude("_id");
+
+        List<String> likedIds = mongoTemplate.find(query, Document.class, "likes").stream()
+                .map(doc -> doc.getString("targetId"))
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (likedIds.size() > maxLikesPerViewer) {
+            return new Entry(null);
+        }
+
+        // Leave headroom so likes added through recentLiked don't need a rebuild
+        BloomFilter bloom = new BloomFilter(likedIds.size() + maxRecentPerViewer, falsePositiveRate);
+        likedIds.forEach(bloom::put);
+        return new Entry(bloom);
+    }
+
+    /**
+     * Bytes held by an entry: its filter plus a fixed overhead. The recent
+     * sets are bounded by {@code max-recent-per-viewer} and left out.
+     */
+    private int weigh(Entry entry) {
+        long bytes = ENTRY_WEIGHT + (entry.bloom != null ? entry.bloom.sizeInBytes() : 0);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private Set<String> queryLiked(User viewer, Collection<String> postIds) {
+        return likeRepository.findByUserAndTargetTypeAndTargetIdIn(
+                viewer,
+                LikeTargetType.POST,
+                new ArrayList<>(postIds)
+        ).stream().map(Like::getTargetId).collect(Collectors.toSet());
+    }
+
+    private static final class Entry {
+        private final BloomFilter bloom;
+        private final Set<String> recentLiked = ConcurrentHashMap.newKeySet();
+        private final Set<String> recentUnliked = ConcurrentHashMap.newKeySet();
+
+        private Entry(BloomFilter bloom) {
+            this.bloom = bloom;
+        }
+    }
+}
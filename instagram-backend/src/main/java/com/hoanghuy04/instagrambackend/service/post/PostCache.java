@@ -0,0 +1,160 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hoanghuy04.instagrambackend.dto.response.PostResponse;
+import com.hoanghuy04.instagrambackend.dto.response.UserSummaryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of hot posts, keyed by post ID.
+ * Holds the viewer-agnostic PostResponse (per-viewer flags left false) and
+ * hands out copies, so callers can personalize the result freely.
+ * Caffeine's W-TinyLFU eviction is bounded by an estimated byte weight.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCache {
+
+    private static final String CACHE_NAME = "posts";
+
+    private static final int BASE_WEIGHT = 512;
+    private static final int MEDIA_WEIGHT = 256;
+    private static final int TAG_WEIGHT = 96;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.post-cache.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${app.post-cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    private Cache<String, PostResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String postId, PostResponse post) -> weigh(post))
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    /**
+     * Return a copy of the cached base response, loading it on a miss.
+     *
+     * @param postId the post ID
+     * @param loader builds the base response on a miss
+     * @return a copy safe to personalize
+     */
+    public PostResponse get(String postId, Supplier<PostResponse> loader) {
+        return copyOf(cache.get(postId, id -> loader.get()));
+    }
+
+    /**
+     * Apply counter deltas to a cached post, if present.
+     *
+     * @param postId the post ID
+     * @param likeDelta change of totalLike
+     * @param commentDelta change of totalComment
+     */
+    public void adjustCounters(String postId, long likeDelta, long commentDelta) {
+        cache.asMap().computeIfPresent(postId, (id, cached) -> {
+            PostResponse patched = copyOf(cached);
+            patched.setTotalLike(Math.max(0, valueOf(cached.getTotalLike()) + likeDelta));
+            patched.setTotalComment(Math.max(0, valueOf(cached.getTotalComment()) + commentDelta));
+            return patched;
+        });
+    }
+
+    /**
+     * Drop a post from the cache.
+     *
+     * @param postId the post ID
+     */
+    public void invalidate(String postId) {
+        cache.invalidate(postId);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Scheduled(initialDelayString = "${app.post-cache.stats-log-interval-ms:300000}",
+            fixedDelayString = "${app.post-cache.stats-log-interval-ms:300000}")
+    public void logStats() {
+        CacheStats stats = cache.stats();
+        log.info("Post cache: size={}, hits={}, misses={}, hitRate={}, evictions={}",
+                cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                String.format("%.3f", stats.hitRate()), stats.evictionCount());
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private PostResponse copyOf(PostResponse post) {
+        UserSummaryResponse author = post.getAuthor();
+        return PostResponse.builder()
+                .id(post.getId())
+                .author(author == null ? null : UserSummaryResponse.builder()
+                        .id(author.getId())
+                        .username(author.getUsername())
+                        .avatar(author.getAvatar())
+                        .isVerified(author.isVerified())
+                        .followingByCurrentUser(false)
+                        .build())
+                .caption(post.getCaption())
+                .type(post.getType())
+                .media(post.getMedia() == null ? null : new ArrayList<>(post.getMedia()))
+                .totalLike(post.getTotalLike())
+                .totalComment(post.getTotalComment())
+                .tags(post.getTags() == null ? null : new ArrayList<>(post.getTags()))
+                .location(post.getLocation())
+                .isLikedByCurrentUser(false)
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .build();
+    }
+
+    private long valueOf(Long counter) {
+        return counter == null ? 0L : counter;
+    }
+
+    private int weigh(PostResponse post) {
+        int weight = BASE_WEIGHT;
+        if (post.getCaption() != null) {
+            weight += post.getCaption().length() * 2;
+        }
+        if (post.getLocation() != null) {
+            weight += post.getLocation().length() * 2;
+        }
+        if (post.getMedia() != null) {
+            weight += post.getMedia().size() * MEDIA_WEIGHT;
+        }
+        if (post.getTags() != null) {
+            weight += post.getTags().size() * TAG_WEIGHT;
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.PostDeletionJob;
+
+/**
+ * Background cascade delete for posts.
+ * Removes likes, comment likes, mentions and comments with set-based
+ * {@code $in} deletes in bounded batches, then reclaims the media files.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface PostCascadeDeleter {
+
+    /**
+     * Record a cascade-delete job for a post, before its document is removed.
+     * The job deletes the document too, so the delete completes even if the
+     * caller fails right after scheduling.
+     *
+     * @param post the post being deleted
+     * @param requestedBy the user ID who deleted it
+     * @return the saved job
+     */
+    PostDeletionJob schedule(Post post, String requestedBy);
+}
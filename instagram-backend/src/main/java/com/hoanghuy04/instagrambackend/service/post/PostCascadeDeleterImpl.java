@@ -0,0 +1,264 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.PostDeletionJob;
+import com.hoanghuy04.instagrambackend.enums.DeletionJobStatus;
+import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
+import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
+import com.hoanghuy04.instagrambackend.repository.PostDeletionJobRepository;
+import com.hoanghuy04.instagrambackend.service.FileService;
+import com.hoanghuy04.instagrambackend.service.feed.TimelineService;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostCascadeDeleterImpl implements PostCascadeDeleter {
+
+    private static final String LIKES = "likes";
+    private static final String COMMENTS = "comments";
+    private static final String MENTIONS = "mentions";
+    private static final String POSTS = "posts";
+
+    private final MongoTemplate mongoTemplate;
+    private final PostDeletionJobRepository jobRepository;
+    private final FileService fileService;
+    private final PostLikePreviewService likePreviewService;
+    private final TimelineService timelineService;
+
+    @Value("${app.post-delete.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.post-delete.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.post-delete.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${app.post-delete.max-batches-per-tick:20}")
+    private int maxBatchesPerTick;
+
+    @Override
+    public PostDeletionJob schedule(Post post, String requestedBy) {
+        PostDeletionJob job = PostDeletionJob.builder()
+                .postId(post.getId())
+                .authorId(post.getAuthor() != null ? post.getAuthor().getId() : requestedBy)
+                .requestedBy(requestedBy)
+                .status(DeletionJobStatus.PENDING)
+                .mediaFileIds(post.getMediaFileIds() == null ? new ArrayList<>() : new ArrayList<>(post.getMediaFileIds()))
+                .createdAt(Instant.now())
+                .build();
+        return jobRepository.insert(job);
+    }
+
+    // ==============================
+    // WORKER
+    // ==============================
+
+    /**
+     * Claim and run pending jobs, at most {@code maxBatchesPerTick} delete batches
+     * per tick so one large post does not hold a thread of the shared scheduler.
+     * Every step deletes whatever is left, so a job that runs out of batches is
+     * handed back and resumed on the next tick, and a job interrupted mid-way is
+     * resumed once its lease expires.
+     */
+    @Scheduled(fixedDelayString = "${app.post-delete.poll-interval-ms:1000}")
+    public void processPendingJobs() {
+        int[] budget = {maxBatchesPerTick};
+        PostDeletionJob job;
+        // claiming a job costs a batch too, so a run of small jobs is bounded as well
+        while (budget[0]-- > 0 && (job = claimNext()) != null) {
+            run(job, budget);
+        }
+    }
+
+    private PostDeletionJob claimNext() {
+        Instant now = Instant.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(DeletionJobStatus.PENDING),
+                Criteria.where("status").is(DeletionJobStatus.RUNNING).and("leaseUntil").lte(now)
+        )).with(Sort.by(Sort.Direction.ASC, "createdAt"));
+
+        Update update = new Update()
+                .set("status", DeletionJobStatus.RUNNING)
+                .set("leaseUntil", now.plusMillis(leaseMs))
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                PostDeletionJob.class
+        );
+    }
+
+    private void run(PostDeletionJob job, int[] budget) {
+        try {
+            deletePostDocument(job);
+            pullFromTimelines(job);
+            if (!deletePostLikes(job, budget) || !deleteComments(job, budget)) {
+                yieldJob(job);
+                return;
+            }
+            reclaimMedia(job);
+
+            finish(job, DeletionJobStatus.COMPLETED, null);
+            log.info("Cascade delete of post {} completed", job.getPostId());
+        } catch (Exception e) {
+            if (job.getAttempts() >= maxAttempts) {
+                finish(job, DeletionJobStatus.FAILED, e.getMessage());
+                log.error("Cascade delete of post {} failed after {} attempts", job.getPostId(), job.getAttempts(), e);
+            } else {
+                // leave it RUNNING; it is picked up again once the lease expires
+                progress(job, new Update().set("lastError", e.getMessage()));
+                log.warn("Cascade delete of post {} interrupted, will resume: {}", job.getPostId(), e.getMessage());
+            }
+        }
+    }
+
+    // ==============================
+    // STEPS
+    // ==============================
+    /**
+     * Normally already done by the request that scheduled the job.
+     */
+    private void deletePostDocument(PostDeletionJob job) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(MongoDocs.toObjectId(job.getPostId()))), POSTS);
+        mongoTemplate.remove(Query.query(
+                Criteria.where("targetType").is(MentionTargetType.POST.name()).and("targetId").is(job.getPostId())
+        ), MENTIONS);
+    }
+
+    private void pullFromTimelines(PostDeletionJob job) {
+        // jobs queued before authorId was recorded: only the author can delete a post
+        String authorId = job.getAuthorId() != null ? job.getAuthorId() : job.getRequestedBy();
+        timelineService.removePost(job.getPostId(), authorId);
+    }
+
+    /**
+     * @return true once no post like is left, false if the batch budget ran out first
+     */
+    private boolean deletePostLikes(PostDeletionJob job, int[] budget) {
+        Criteria postLikes = Criteria.where("targetType").is(LikeTargetType.POST.name())
+                .and("targetId").is(job.getPostId());
+
+        List<Object> ids;
+        while (!(ids = nextIds(LIKES, postLikes)).isEmpty()) {
+            if (budget[0]-- <= 0) {
+                return false;
+            }
+            long deleted = removeByIds(LIKES, ids);
+            progress(job, new Update().inc("postLikesDeleted", deleted));
+        }
+        likePreviewService.deleteByPost(job.getPostId());
+        return true;
+    }
+
+    /**
+     * Per batch of comment IDs: their likes and mentions first, then the comments,
+     * so a resumed job still finds the comments whose children are left.
+     *
+     * @return true once no comment is left, false if the batch budget ran out first
+     */
+    private boolean deleteComments(PostDeletionJob job, int[] budget) {
+        Criteria postComments = Criteria.where("post").is(MongoDocs.toObjectId(job.getPostId()));
+
+        List<Object> ids;
+        while (!(ids = nextIds(COMMENTS, postComments)).isEmpty()) {
+            if (budget[0]-- <= 0) {
+                return false;
+            }
+            List<String> commentIds = ids.stream().map(Object::toString).toList();
+
+            long likes = mongoTemplate.remove(Query.query(
+                    Criteria.where("targetType").is(LikeTargetType.COMMENT.name()).and("targetId").in(commentIds)
+            ), LIKES).getDeletedCount();
+
+            long mentions = mongoTemplate.remove(Query.query(
+                    Criteria.where("targetType").is(MentionTargetType.COMMENT.name()).and("targetId").in(commentIds)
+            ), MENTIONS).getDeletedCount();
+
+            long comments = removeByIds(COMMENTS, ids);
+
+            progress(job, new Update()
+                    .inc("commentLikesDeleted", likes)
+                    .inc("mentionsDeleted", mentions)
+                    .inc("commentsDeleted", comments));
+        }
+        return true;
+    }
+
+    private void reclaimMedia(PostDeletionJob job) {
+        List<String> mediaFileIds = job.getMediaFileIds();
+        for (int from = 0; from < mediaFileIds.size(); from += batchSize) {
+            List<String> batch = mediaFileIds.subList(from, Math.min(from + batchSize, mediaFileIds.size()));
+            int deleted = fileService.deleteFiles(batch);
+            progress(job, new Update().inc("mediaFilesDeleted", deleted));
+        }
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private List<Object> nextIds(String collection, Criteria criteria) {
+        Query query = Query.query(criteria).limit(batchSize);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, collection).stream()
+                .map(doc -> doc.get("_id"))
+                .toList();
+    }
+
+    private long removeByIds(String collection, List<Object> ids) {
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), collection).getDeletedCount();
+    }
+
+    /**
+     * Hand a job that ran out of batches back to the queue, giving back the
+     * attempt its claim counted, so it is picked up again on the next tick.
+     */
+    private void yieldJob(PostDeletionJob job) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(job.getId())),
+                new Update()
+                        .set("status", DeletionJobStatus.PENDING)
+                        .inc("attempts", -1)
+                        .unset("leaseUntil"),
+                PostDeletionJob.class
+        );
+    }
+
+    /**
+     * Record progress and extend the lease, so long jobs are not taken over mid-run.
+     */
+    private void progress(PostDeletionJob job, Update update) {
+        update.set("leaseUntil", Instant.now().plusMillis(leaseMs));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())), update, PostDeletionJob.class);
+    }
+
+    private void finish(PostDeletionJob job, DeletionJobStatus status, String error) {
+        Update update = new Update()
+                .set("status", status)
+                .set("finishedAt", Instant.now())
+                .unset("leaseUntil");
+        if (error != null) {
+            update.set("lastError", error);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())), update, PostDeletionJob.class);
+    }
+}
@@ -5,6 +5,7 @@ import com.hoanghuy04.instagrambackend.dto.response.CommentLikeToggleResponse;
 import com.hoanghuy04.instagrambackend.dto.response.CommentPinToggleResponse;
 import com.hoanghuy04.instagrambackend.dto.response.CommentResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
+import com.hoanghuy04.instagrambackend.enums.CommentSortMode;
 import org.springframework.data.domain.Pageable;
 
 
@@ -12,7 +13,7 @@ import org.springframework.data.domain.Pageable;
 public interface PostCommentService {
     CommentResponse createComment(String postId, CommentCreateRequest request);
 
-    PageResponse<CommentResponse> getComments(String postId, Pageable pageable);
+    PageResponse<CommentResponse> getComments(String postId, CommentSortMode mode, Pageable pageable);
 
     PageResponse<CommentResponse> getReplies(String postId, String parentCommentId, Pageable pageable);
 
@@ -20,5 +21,12 @@ public interface PostCommentService {
 
     void deleteComment(String postId, String commentId);
 
+    /**
+     * Remove every comment written by a user, threads included.
+     *
+     * @return number of comments deleted
+     */
+    long removeCommentsByUser(String userId);
+
     CommentPinToggleResponse togglePinComment(String postId, String commentId);
 }
@@ -11,6 +11,7 @@ import com.hoanghuy04.instagrambackend.entity.Like;
 import com.hoanghuy04.instagrambackend.entity.Mention;
 import com.hoanghuy04.instagrambackend.entity.Post;
 import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.enums.CommentSortMode;
 import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
 import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
 import com.hoanghuy04.instagrambackend.exception.ResourceNotFoundException;
@@ -19,23 +20,46 @@ import com.hoanghuy04.instagrambackend.repository.LikeRepository;
 import com.hoanghuy04.instagrambackend.repository.MentionRepository;
 import com.hoanghuy04.instagrambackend.repository.PostRepository;
 import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.service.counter.CounterField;
+import com.hoanghuy04.instagrambackend.service.counter.CounterService;
+import com.hoanghuy04.instagrambackend.service.explore.ExploreService;
+import com.hoanghuy04.instagrambackend.service.websocket.CommentStreamService;
 import com.hoanghuy04.instagrambackend.service.notification.NotificationService; // 👈
 import com.hoanghuy04.instagrambackend.util.MentionUtil;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.LookupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostCommentServiceImpl implements PostCommentService {
 
     private static final int MAX_PINNED_COMMENTS = 2;
+    private static final String COMMENTS = "comments";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
 
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
@@ -45,6 +69,16 @@ public class PostCommentServiceImpl implements PostCommentService {
     private final SecurityUtil securityUtil;
     private final MentionUtil mentionUtil;
     private final NotificationService notificationService; // 👈
+    private final ExploreService exploreService;
+    private final PostCache postCache;
+    private final CounterService counterService;
+    private final MongoTemplate mongoTemplate;
+    private final CommentRanker commentRanker;
+    private final CommentBulkDeleter commentBulkDeleter;
+    private final CommentStreamService commentStreamService;
+
+    @Value("${app.comments.preview-replies:2}")
+    private int previewReplies;
 
     // ==============================
     // CREATE COMMENT
@@ -66,17 +100,30 @@ public class PostCommentServiceImpl implements PostCommentService {
                 throw new IllegalArgumentException("Parent comment does not belong to this post");
             }
 
-            parent.setTotalReply(parent.getTotalReply() + 1);
-            commentRepository.save(parent);
+            counterService.increment(CounterField.COMMENT_REPLIES, parent.getId(), 1);
+            commentRanker.rescore(parent.getId());
         }
 
         String rawText = request.getText() != null ? request.getText().trim() : "";
 
+        boolean byPostAuthor = post.getAuthor() != null && post.getAuthor().getId().equals(currentUser.getId());
+        double rankBase = commentRanker.baseScore(LocalDateTime.now(), byPostAuthor);
+
+        String rootId = null;
+        if (parent != null) {
+            rootId = parent.getRootId() != null ? parent.getRootId() : parent.getId();
+        }
+
         Comment comment = Comment.builder()
                 .post(post)
                 .author(currentUser)
+                .authorUsername(currentUser.getUsername())
+                .authorAvatar(avatarOf(currentUser))
                 .text(rawText)
                 .parentComment(parent)
+                .rootId(rootId)
+                .rankBase(rankBase)
+                .rankScore(rankBase)
                 .totalLikes(0L)
                 .totalReply(0L)
                 .pinned(false)
@@ -84,8 +131,10 @@ public class PostCommentServiceImpl implements PostCommentService {
 
         Comment saved = commentRepository.save(comment);
 
-        post.setTotalComments(post.getTotalComments() + 1);
-        postRepository.save(post);
+        counterService.increment(CounterField.POST_COMMENTS, post.getId(), 1);
+
+        postCache.adjustCounters(post.getId(), 0, 1);
+        exploreService.onEngagement(post.getId(), 0, 1);
 
         // 🔔 noti cho chủ bài viết khi có comment (trừ tự cmt bài mình)
         User postAuthor = post.getAuthor();
@@ -100,7 +149,9 @@ public class PostCommentServiceImpl implements PostCommentService {
         // 🔔 sync mention + noti TAG_IN_COMMENT
         syncMentionsForComment(saved, rawText, currentUser.getId());
 
-        return mapToCommentResponse(saved, false);
+        CommentResponse response = mapToCommentResponse(saved, false);
+        commentStreamService.publishCreated(post.getId(), response);
+        return response;
     }
 
     // ==============================
@@ -108,15 +159,75 @@ public class PostCommentServiceImpl implements PostCommentService {
     // ==============================
     @Transactional(readOnly = true)
     @Override
-    public PageResponse<CommentResponse> getComments(String postId, Pageable pageable) {
+    public PageResponse<CommentResponse> getComments(String postId, CommentSortMode mode, Pageable pageable) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
 
         User currentUser = securityUtil.getCurrentUser();
 
-        Page<Comment> page = commentRepository.findByPostAndParentCommentIsNull(post, pageable);
+        Sort sort;
+        if (mode == CommentSortMode.TOP) {
+            // precomputed score: served in index order by post_rank_id_idx
+            sort = Sort.by(Sort.Direction.DESC, "pinned", "rankScore", "_id");
+        } else {
+            Sort requested = pageable.getSort().isSorted()
+                    ? pageable.getSort()
+                    : Sort.by(Sort.Direction.DESC, "createdAt");
+            sort = Sort.by(Sort.Direction.DESC, "pinned").and(Sort.by(requested.stream()
+                    .filter(order -> !order.getProperty().equals("pinned"))
+                    .toList()));
+        }
+
+        Criteria topLevel = Criteria.where("post").is(MongoDocs.toObjectId(postId)).and("parentComment").is(null);
+
+        // Page of top-level comments as top-level stages, so match + sort + skip + limit
+        // walk post_thread_idx / post_rank_id_idx; each row is then joined with its
+        // first replies on root_createdAt_idx
+        LookupOperation firstReplies = LookupOperation.newLookup()
+                .from(COMMENTS)
+                .localField("_id")
+                .foreignField("rootId")
+                .pipeline(
+                        Aggregation.sort(Sort.Direction.ASC, "createdAt"),
+                        Aggregation.limit(previewReplies)
+                )
+                .as("replies");
+
+        // The total rides along on each row: the sub-pipeline is uncorrelated, so the
+        // server counts post_thread_idx once and reuses the result for every row
+        LookupOperation threadTotal = LookupOperation.newLookup()
+                .from(COMMENTS)
+                .pipeline(
+                        Aggregation.match(topLevel),
+                        Aggregation.count().as("n")
+                )
+                .as("threadTotal");
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(topLevel),
+                Aggregation.sort(sort),
+                Aggregation.skip(pageable.getOffset()),
+                Aggregation.limit(pageable.getPageSize()),
+                firstReplies,
+                threadTotal,
+                Aggregation.addFields()
+                        .addFieldWithValue("threadTotal", ArrayOperators.ArrayElemAt.arrayOf("threadTotal.n").elementAt(0))
+                        .build()
+        );
+
+        List<CommentRow> rows = mongoTemplate.aggregate(aggregation, COMMENTS, CommentRow.class).getMappedResults();
 
-        return mapCommentPageWithLikeInfo(page, currentUser);
+        long total;
+        if (!rows.isEmpty()) {
+            total = rows.get(0).getThreadTotal();
+        } else if (pageable.getOffset() == 0) {
+            total = 0;
+        } else {
+            // only a page past the end has no row to carry the total
+            total = mongoTemplate.count(Query.query(topLevel), COMMENTS);
+        }
+
+        return toPage(rows, post, currentUser, pageable, total);
     }
 
     // ==============================
@@ -137,9 +248,11 @@ public class PostCommentServiceImpl implements PostCommentService {
 
         User currentUser = securityUtil.getCurrentUser();
 
-        Page<Comment> page = commentRepository.findByPostAndParentComment(post, parent, pageable);
+        Query query = Query.query(Criteria.where("parentComment").is(MongoDocs.toObjectId(parentCommentId)));
+        long total = mongoTemplate.count(query, COMMENTS);
+        List<CommentRow> rows = mongoTemplate.find(query.with(pageable), CommentRow.class, COMMENTS);
 
-        return mapCommentPageWithLikeInfo(page, currentUser);
+        return toPage(rows, post, currentUser, pageable, total);
     }
 
     // ==============================
@@ -166,7 +279,6 @@ public class PostCommentServiceImpl implements PostCommentService {
         boolean liked;
         if (existing.isPresent()) {
             likeRepository.delete(existing.get());
-            comment.setTotalLikes(Math.max(0, comment.getTotalLikes() - 1));
             liked = false;
         } else {
             Like like = Like.builder()
@@ -176,7 +288,6 @@ public class PostCommentServiceImpl implements PostCommentService {
                     .build();
 
             likeRepository.save(like);
-            comment.setTotalLikes(comment.getTotalLikes() + 1);
             liked = true;
 
             // 🔔 noti cho chủ comment khi được like (trừ tự like)
@@ -190,13 +301,15 @@ public class PostCommentServiceImpl implements PostCommentService {
             }
         }
 
-        commentRepository.save(comment);
+        long totalLikes = counterService.increment(CounterField.COMMENT_LIKES, commentId, liked ? 1 : -1);
+        commentRanker.rescore(commentId);
+        commentStreamService.publishLikeCount(postId, commentId, totalLikes);
 
         return CommentLikeToggleResponse.builder()
                 .postId(postId)
                 .commentId(commentId)
                 .liked(liked)
-                .totalLikes(comment.getTotalLikes())
+                .totalLikes(totalLikes)
                 .build();
     }
 
@@ -241,6 +354,7 @@ public class PostCommentServiceImpl implements PostCommentService {
         commentRepository.save(comment);
 
         long totalPinned = commentRepository.countByPostAndParentCommentIsNullAndPinnedTrue(post);
+        commentStreamService.publishPinned(postId, commentId, newPinnedState);
 
         return CommentPinToggleResponse.builder()
                 .postId(postId)
@@ -274,48 +388,42 @@ public class PostCommentServiceImpl implements PostCommentService {
             throw new IllegalStateException("You do not have permission to delete this comment");
         }
 
-        long decrement = 1L;
-
-        if (comment.getParentComment() == null) {
-            List<Comment> replies = commentRepository.findByParentComment_Id(commentId);
-
-            if (!replies.isEmpty()) {
-                List<String> replyIds = replies.stream().map(Comment::getId).toList();
-
-                replyIds.forEach(id ->
-                        likeRepository.deleteByTargetTypeAndTargetId(LikeTargetType.COMMENT, id)
-                );
-
-                replyIds.forEach(id ->
-                        mentionRepository.deleteByTargetTypeAndTargetId(MentionTargetType.COMMENT, id)
-                );
+        commentBulkDeleter.delete(List.of(commentId));
+    }
 
-                commentRepository.deleteAll(replies);
-                decrement += replies.size();
-            }
-        } else {
-            Comment parent = comment.getParentComment();
-            parent.setTotalReply(Math.max(0, parent.getTotalReply() - 1));
-            commentRepository.save(parent);
+    // ==============================
+    // MODERATION
+    // ==============================
+    @Override
+    public long removeCommentsByUser(String userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
         }
-
-        post.setTotalComments(Math.max(0, post.getTotalComments() - decrement));
-        postRepository.save(post);
-
-        likeRepository.deleteByTargetTypeAndTargetId(LikeTargetType.COMMENT, commentId);
-        mentionRepository.deleteByTargetTypeAndTargetId(MentionTargetType.COMMENT, commentId);
-
-        commentRepository.delete(comment);
+        return commentBulkDeleter.deleteByAuthor(userId);
     }
 
     // ==============================
     // MAP COMMENT PAGE
     // ==============================
-    private PageResponse<CommentResponse> mapCommentPageWithLikeInfo(Page<Comment> page, User currentUser) {
-        List<Comment> comments = page.getContent();
-        List<String> commentIds = comments.stream()
-                .map(Comment::getId)
-                .toList();
+
+    /**
+     * Map comment rows (and their preview replies) with one query for the
+     * viewer's likes; authors come from the denormalized fields.
+     */
+    private PageResponse<CommentResponse> toPage(
+            List<CommentRow> rows,
+            Post post,
+            User currentUser,
+            Pageable pageable,
+            long total
+    ) {
+        List<String> commentIds = new ArrayList<>();
+        for (CommentRow row : rows) {
+            commentIds.add(row.getId());
+            if (row.getReplies() != null) {
+                row.getReplies().forEach(reply -> commentIds.add(reply.getId()));
+            }
+        }
 
         Set<String> likedIds;
 
@@ -332,12 +440,45 @@ public class PostCommentServiceImpl implements PostCommentService {
             likedIds = Collections.emptySet();
         }
 
-        Page<CommentResponse> dtoPage = page.map(c -> {
-            boolean likedByCurrentUser = likedIds.contains(c.getId());
-            return mapToCommentResponse(c, likedByCurrentUser);
-        });
+        String postAuthorId = post.getAuthor() != null ? post.getAuthor().getId() : null;
+        List<CommentResponse> content = rows.stream()
+                .map(row -> mapRowToCommentResponse(row, post.getId(), postAuthorId, likedIds))
+                .toList();
 
-        return PageResponse.of(dtoPage);
+        return PageResponse.of(new PageImpl<>(content, pageable, total));
+    }
+
+    private CommentResponse mapRowToCommentResponse(
+            CommentRow row,
+            String postId,
+            String postAuthorId,
+            Set<String> likedIds
+    ) {
+        PostLikeUserResponse authorDto = new PostLikeUserResponse();
+        authorDto.setId(row.getAuthor());
+        authorDto.setUsername(row.getAuthorUsername());
+        authorDto.setAvatar(row.getAuthorAvatar());
+
+        List<CommentResponse> replies = row.getReplies() == null ? null : row.getReplies().stream()
+                .map(reply -> mapRowToCommentResponse(reply, postId, postAuthorId, likedIds))
+                .toList();
+
+        return CommentResponse.builder()
+                .id(row.getId())
+                .postId(postId)
+                .author(authorDto)
+                .text(row.getText())
+                .totalLike(row.getTotalLikes())
+                .totalReply(row.getTotalReply())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .parentCommentId(row.getParentComment())
+                .mentions(Collections.emptyList())
+                .isLikedByCurrentUser(likedIds.contains(row.getId()))
+                .pinned(row.isPinned())
+                .isAuthorCommentedPost(row.getAuthor() != null && row.getAuthor().equals(postAuthorId))
+                .replies(replies)
+                .build();
     }
 
     // ==============================
@@ -377,6 +518,89 @@ public class PostCommentServiceImpl implements PostCommentService {
                 .build();
     }
 
+    // ==============================
+    // BACKFILL THREAD FIELDS
+    // ==============================
+
+    /**
+     * Comments that predate the denormalized author fields and rootId get
+     * them filled in batches: one bulk per batch of authors, one per batch of replies.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillThreadFields() {
+        long authors = backfillAuthors();
+        long roots = backfillRootIds();
+        if (authors + roots > 0) {
+            log.info("Backfilled comment author fields on {} and rootId on {} comments", authors, roots);
+        }
+    }
+
+    private long backfillAuthors() {
+        Query missing = Query.query(Criteria.where("authorUsername").exists(false)).limit(BACKFILL_BATCH_SIZE);
+        missing.fields().include("author");
+
+        return MongoDocs.backfill(mongoTemplate, COMMENTS, missing, batch -> {
+            Set<String> authorIds = batch.stream()
+                    .map(doc -> doc.get("author"))
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .collect(Collectors.toSet());
+            Map<String, User> users = userRepository.findAllById(authorIds).stream()
+                    .collect(Collectors.toMap(User::getId, u -> u));
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COMMENTS);
+            for (String authorId : authorIds) {
+                User author = users.get(authorId);
+                // authors that no longer exist get an empty snapshot
+                bulk.updateMulti(
+                        Query.query(Criteria.where("author").is(MongoDocs.toObjectId(authorId))
+                                .and("authorUsername").exists(false)),
+                        new Update()
+                                .set("authorUsername", author != null ? author.getUsername() : "")
+                                .set("authorAvatar", author != null ? avatarOf(author) : null)
+                );
+            }
+            bulk.updateMulti(
+                    Query.query(Criteria.where("author").exists(false).and("authorUsername").exists(false)),
+                    new Update().set("authorUsername", "")
+            );
+            return bulk.execute().getModifiedCount();
+        });
+    }
+
+    private long backfillRootIds() {
+        Query missing = Query.query(Criteria.where("parentComment").ne(null).and("rootId").exists(false))
+                .limit(BACKFILL_BATCH_SIZE);
+        missing.fields().include("parentComment");
+
+        return MongoDocs.backfill(mongoTemplate, COMMENTS, missing, batch -> {
+            Set<Object> parentIds = batch.stream()
+                    .map(doc -> doc.get("parentComment"))
+                    .collect(Collectors.toSet());
+
+            Query parentsQuery = Query.query(Criteria.where("_id").in(parentIds));
+            parentsQuery.fields().include("rootId");
+            Map<Object, Object> rootOfParent = new HashMap<>();
+            mongoTemplate.find(parentsQuery, Document.class, COMMENTS).forEach(parent ->
+                    rootOfParent.put(parent.get("_id"), parent.get("rootId") != null ? parent.get("rootId") : parent.get("_id")));
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COMMENTS);
+            for (Document reply : batch) {
+                // orphaned replies point at their missing parent
+                Object parentId = reply.get("parentComment");
+                bulk.updateOne(
+                        Query.query(Criteria.where("_id").is(reply.get("_id"))),
+                        new Update().set("rootId", rootOfParent.getOrDefault(parentId, parentId))
+                );
+            }
+            return bulk.execute().getModifiedCount();
+        });
+    }
+
+    private String avatarOf(User user) {
+        return user.getProfile() != null ? user.getProfile().getAvatar() : null;
+    }
+
     // ==============================
     // SYNC MENTIONS + NOTI TAG
     // ==============================
@@ -0,0 +1,190 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.dto.response.HashtagResponse;
+import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
+import com.hoanghuy04.instagrambackend.dto.response.PostResponse;
+import com.hoanghuy04.instagrambackend.dto.response.UserSummaryResponse;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.mapper.UserMapper;
+import com.hoanghuy04.instagrambackend.service.FileService;
+import com.hoanghuy04.instagrambackend.service.counter.CounterField;
+import com.hoanghuy04.instagrambackend.service.counter.CounterService;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Batch hydrator turning a page of posts into PostResponse DTOs.
+ * Collects media IDs (post media and author avatars) and follow edges for the
+ * whole page and resolves each with a single {@code $in} query, instead of
+ * several lookups per post. Follow and like flags come from the in-memory
+ * {@link FollowGraph} and {@link LikedPostIndex}.
+ * Posts are expected to come from the {@code PostRepositoryCustom} loaders,
+ * which attach authors and hashtags in one batch rather than per post.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class PostHydrator {
+
+    private final FileService fileService;
+    private final FollowGraph followGraph;
+    private final LikedPostIndex likedPostIndex;
+    private final CounterService counterService;
+    private final UserMapper userMapper;
+
+    /**
+     * Hydrate posts for a viewer, preserving the input order.
+     *
+     * @param posts the posts of the page
+     * @param viewer the current user, or null for anonymous access
+     * @return list of PostResponse
+     */
+    public List<PostResponse> hydrate(List<Post> posts, User viewer) {
+        List<PostResponse> responses = hydrateBase(posts);
+        applyViewer(responses, viewer);
+        return responses;
+    }
+
+    /**
+     * Hydrate a single post for a viewer.
+     *
+     * @param post the post
+     * @param viewer the current user, or null for anonymous access
+     * @return PostResponse
+     */
+    public PostResponse hydrate(Post post, User viewer) {
+        return hydrate(List.of(post), viewer).get(0);
+    }
+
+    /**
+     * Build viewer-agnostic responses (media, author summary, tags, counters).
+     * Per-viewer flags are left false; see {@link #applyViewer(List, User)}.
+     *
+     * @param posts the posts of the page
+     * @return list of PostResponse
+     */
+    public List<PostResponse> hydrateBase(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> mediaIds = new HashSet<>();
+        for (Post post : posts) {
+            if (post.getMediaFileIds() != null) {
+                mediaIds.addAll(post.getMediaFileIds());
+            }
+            String avatar = avatarOf(post.getAuthor());
+            if (avatar != null) {
+                mediaIds.add(avatar);
+            }
+        }
+
+        Map<String, MediaFileResponse> mediaById = fileService.getMediaFileResponseMap(mediaIds);
+
+        return posts.stream()
+                .map(post -> toResponse(post, mediaById))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Set the per-viewer flags (following the author, liked the post) in place.
+     * Both are answered from memory by {@link FollowGraph} and
+     * {@link LikedPostIndex}, so this is cheap enough to run on every cache hit;
+     * only Bloom filter hits are verified against Mongo.
+     *
+     * @param responses the responses to personalize
+     * @param viewer the current user, or null for anonymous access
+     */
+    public void applyViewer(List<PostResponse> responses, User viewer) {
+        if (viewer == null || responses.isEmpty()) {
+            return;
+        }
+
+        Set<String> authorIds = responses.stream()
+                .map(PostResponse::getAuthor)
+                .filter(Objects::nonNull)
+                .map(UserSummaryResponse::getId)
+                .collect(Collectors.toSet());
+
+        Set<String> followingIds = findFollowingAuthorIds(viewer, authorIds);
+        Set<String> likedPostIds = findLikedPostIds(viewer, responses);
+
+        for (PostResponse response : responses) {
+            UserSummaryResponse author = response.getAuthor();
+            if (author != null) {
+                author.setFollowingByCurrentUser(followingIds.contains(author.getId()));
+            }
+            response.setLikedByCurrentUser(likedPostIds.contains(response.getId()));
+        }
+    }
+
+    private PostResponse toResponse(Post post, Map<String, MediaFileResponse> mediaById) {
+        User author = post.getAuthor();
+
+        String avatar = avatarOf(author);
+        String avatarUrl = avatar;
+        if (avatar != null && mediaById.containsKey(avatar)) {
+            avatarUrl = mediaById.get(avatar).getUrl();
+        }
+
+        List<MediaFileResponse> media = post.getMediaFileIds() == null
+                ? new ArrayList<>()
+                : post.getMediaFileIds().stream()
+                .map(mediaById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        List<HashtagResponse> hashtagResponses = post.getTags() == null
+                ? new ArrayList<>()
+                : post.getTags().stream()
+                .map(tag -> HashtagResponse.builder()
+                        .id(tag.getId())
+                        .tag(tag.getTag())
+                        .usageCount(tag.getUsageCount())
+                        .build()
+                ).toList();
+
+        return PostResponse.builder()
+                .id(post.getId())
+                .author(userMapper.toUserSummary(author, false, avatarUrl))
+                .caption(post.getCaption())
+                .type(post.getType())
+                .media(media)
+                .totalComment(post.getTotalComments())
+                .totalLike(post.getTotalLikes() + counterService.pending(CounterField.POST_LIKES, post.getId()))
+                .tags(hashtagResponses)
+                .location(post.getLocation())
+                .isLikedByCurrentUser(false)
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .build();
+    }
+
+    private Set<String> findFollowingAuthorIds(User viewer, Set<String> authorIds) {
+        Set<String> others = new HashSet<>(authorIds);
+        others.remove(viewer.getId());
+        if (others.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return followGraph.followedAmong(viewer.getId(), others);
+    }
+
+    private Set<String> findLikedPostIds(User viewer, List<PostResponse> responses) {
+        return likedPostIndex.findLiked(viewer, responses.stream().map(PostResponse::getId).toList());
+    }
+
+    private String avatarOf(User user) {
+        if (user == null || user.getProfile() == null) {
+            return null;
+        }
+        String avatar = user.getProfile().getAvatar();
+        return avatar == null || avatar.isBlank() ? null : avatar;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.dto.response.PostLikePreviewResponse;
+import com.hoanghuy04.instagrambackend.entity.User;
+
+import java.util.Collection;
+
+/**
+ * Maintains the "liked by" preview of posts: the first likers, likers the
+ * viewer follows and an approximate distinct-liker count.
+ */
+public interface PostLikePreviewService {
+
+    /**
+     * Fold persisted likes of a post into its preview and sketch.
+     */
+    void onLiked(String postId, Collection<String> userIds);
+
+    /**
+     * Drop persisted unlikes of a post from its preview. The sketch only
+     * grows, so its count is of users who have ever liked the post.
+     */
+    void onUnliked(String postId, Collection<String> userIds);
+
+    PostLikePreviewResponse getPreview(String postId, User viewer);
+
+    void deleteByPost(String postId);
+}
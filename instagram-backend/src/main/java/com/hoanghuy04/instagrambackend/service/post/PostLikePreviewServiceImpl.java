@@ -0,0 +1,256 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.dto.response.PostLikePreviewResponse;
+import com.hoanghuy04.instagrambackend.dto.response.PostLikeUserResponse;
+import com.hoanghuy04.instagrambackend.entity.PostLikePreview;
+import com.hoanghuy04.instagrambackend.entity.PostLikeSketch;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.entity.like.LikerSnapshot;
+import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
+import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import com.hoanghuy04.instagrambackend.util.HyperLogLog;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostLikePreviewServiceImpl implements PostLikePreviewService {
+
+    private static final String LIKES = "likes";
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final FollowGraph followGraph;
+
+    @Value("${app.like-preview.first-likers:3}")
+    private int firstLikers;
+
+    @Value("${app.like-preview.followed-likers:3}")
+    private int followedLikers;
+
+    @Value("${app.like-preview.sketch-shards:4}")
+    private int sketchShards;
+
+    @Value("${app.like-preview.sketch-precision:11}")
+    private int sketchPrecision;
+
+    // ==============================
+    // WRITE
+    // ==============================
+    @Override
+    public void onLiked(String postId, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        updateSketch(postId, userIds);
+        appendFirstLikers(postId, userIds);
+    }
+
+    @Override
+    public void onUnliked(String postId, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        // Only a preview that lost a liker is marked for rebuild; the gap is filled on the next read
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId).and("firstLikers.userId").in(userIds)),
+                new Update()
+                        .pull("firstLikers", Query.query(Criteria.where("userId").in(userIds)).getQueryObject())
+                        .unset("builtAt")
+                        .set("updatedAt", LocalDateTime.now()),
+                PostLikePreview.class
+        );
+    }
+
+    @Override
+    public void deleteByPost(String postId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(postId)), PostLikePreview.class);
+        mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), PostLikeSketch.class);
+    }
+
+    // ==============================
+    // READ
+    // ==============================
+    @Override
+    public PostLikePreviewResponse getPreview(String postId, User viewer) {
+        PostLikePreview preview = mongoTemplate.findById(postId, PostLikePreview.class);
+        List<LikerSnapshot> first = preview == null || preview.getBuiltAt() == null
+                ? rebuildFirstLikers(postId)
+                : preview.getFirstLikers();
+
+        return PostLikePreviewResponse.builder()
+                .postId(postId)
+                .firstLikers(first.stream().map(this::toResponse).toList())
+                .followedLikers(viewer == null ? List.of() : findFollowedLikers(postId, viewer.getId()))
+                .approximateLikers(estimateLikers(postId))
+                .build();
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+
+    /**
+     * Raise the sketch registers of each liker, one upsert per touched shard.
+     */
+    private void updateSketch(String postId, Collection<String> userIds) {
+        Map<Integer, Map<Integer, Integer>> byShard = new HashMap<>();
+        for (String userId : userIds) {
+            HyperLogLog.Register register = HyperLogLog.registerOf(userId, sketchPrecision);
+            byShard.computeIfAbsent(Math.floorMod(userId.hashCode(), sketchShards), s -> new HashMap<>())
+                    .merge(register.index(), register.rank(), Math::max);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostLikeSketch.class);
+        byShard.forEach((shard, registers) -> {
+            Update update = new Update()
+                    .setOnInsert("postId", postId)
+                    .set("updatedAt", LocalDateTime.now());
+            registers.forEach((index, rank) -> update.max("registers." + index, rank));
+            bulk.upsert(Query.query(Criteria.where("_id").is(postId + ":" + shard)), update);
+        });
+        bulk.execute();
+    }
+
+    /**
+     * Push new likers while the stored preview is not full. A missing preview
+     * is left alone: it is built in like order on the first read.
+     */
+    private void appendFirstLikers(String postId, Collection<String> userIds) {
+        Query existing = Query.query(Criteria.where("_id").is(postId));
+        existing.fields().include("firstLikers.userId");
+        Document preview = mongoTemplate.findOne(existing, Document.class,
+                mongoTemplate.getCollectionName(PostLikePreview.class));
+        if (preview == null) {
+            return;
+        }
+
+        Set<String> present = preview.getList("firstLikers", Document.class, List.of()).stream()
+                .map(liker -> liker.getString("userId"))
+                .collect(Collectors.toSet());
+        int free = firstLikers - present.size();
+        if (free <= 0) {
+            return;
+        }
+
+        List<String> candidates = userIds.stream()
+                .filter(id -> !present.contains(id))
+                .limit(free)
+                .toList();
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Object[] snapshots = userRepository.findAllById(candidates).stream()
+                .map(this::toSnapshot)
+                .toArray();
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId)),
+                new Update()
+                        .push("firstLikers").slice(firstLikers).each(snapshots)
+                        .set("updatedAt", LocalDateTime.now()),
+                PostLikePreview.class
+        );
+    }
+
+    private List<LikerSnapshot> rebuildFirstLikers(String postId) {
+        Query query = Query.query(Criteria.where("targetType").is(LikeTargetType.POST.name())
+                        .and("targetId").is(postId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(firstLikers);
+        query.fields().include("user").exclude("_id");
+
+        List<String> likerIds = userIdsOf(query);
+        Map<String, User> users = userRepository.findAllById(likerIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+        List<LikerSnapshot> snapshots = likerIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::toSnapshot)
+                .toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.save(PostLikePreview.builder()
+                .id(postId)
+                .firstLikers(new ArrayList<>(snapshots))
+                .builtAt(now)
+                .updatedAt(now)
+                .build());
+        return snapshots;
+    }
+
+    /**
+     * Likes of the post by users the viewer follows, matched on the
+     * user_target_idx index.
+     */
+    private List<PostLikeUserResponse> findFollowedLikers(String postId, String viewerId) {
+        List<Object> followingRefs = followGraph.followingSet(viewerId).stream()
+                .map(MongoDocs::toObjectId)
+                .toList();
+        if (followingRefs.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = Query.query(Criteria.where("user").in(followingRefs)
+                        .and("targetType").is(LikeTargetType.POST.name())
+                        .and("targetId").is(postId))
+                .limit(followedLikers);
+        query.fields().include("user").exclude("_id");
+
+        return userRepository.findAllById(userIdsOf(query)).stream()
+                .map(user -> toResponse(toSnapshot(user)))
+                .toList();
+    }
+
+    private long estimateLikers(String postId) {
+        HyperLogLog sketch = new HyperLogLog(sketchPrecision);
+        for (PostLikeSketch shard : mongoTemplate.find(
+                Query.query(Criteria.where("postId").is(postId)), PostLikeSketch.class)) {
+            shard.getRegisters().forEach((index, rank) -> sketch.merge(Integer.parseInt(index), rank));
+        }
+        return sketch.estimate();
+    }
+
+    /**
+     * Read liker IDs as raw references, so the users are not resolved one by one.
+     */
+    private List<String> userIdsOf(Query query) {
+        return mongoTemplate.find(query, Document.class, LIKES).stream()
+                .map(doc -> doc.get("user"))
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .toList();
+    }
+
+    private LikerSnapshot toSnapshot(User user) {
+        return LikerSnapshot.builder()
+                .userId(user.getId())
+                .username(user.getUsername())
+                .avatar(user.getProfile() != null ? user.getProfile().getAvatar() : null)
+                .build();
+    }
+
+    private PostLikeUserResponse toResponse(LikerSnapshot liker) {
+        return PostLikeUserResponse.builder()
+                .id(liker.getUserId())
+                .username(liker.getUsername())
+                .avatar(liker.getAvatar())
+                .build();
+    }
+}
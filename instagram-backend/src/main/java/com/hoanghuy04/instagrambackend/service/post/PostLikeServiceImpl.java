@@ -12,69 +12,82 @@ import com.hoanghuy04.instagrambackend.exception.ResourceNotFoundException;
 import com.hoanghuy04.instagrambackend.repository.CommentRepository;
 import com.hoanghuy04.instagrambackend.repository.LikeRepository;
 import com.hoanghuy04.instagrambackend.repository.PostRepository;
+import com.hoanghuy04.instagrambackend.service.counter.CounterField;
+import com.hoanghuy04.instagrambackend.service.counter.CounterService;
+import com.hoanghuy04.instagrambackend.service.explore.ExploreService;
 import com.hoanghuy04.instagrambackend.service.notification.NotificationService;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
+import com.hoanghuy04.instagrambackend.dto.response.PostLikePreviewResponse;
+import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import com.hoanghuy04.instagrambackend.service.user.UserService;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostLikeServiceImpl implements PostLikeService {
 
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
     private final PostRepository postRepository;
     private final LikeRepository likeRepository;
     private final SecurityUtil securityUtil;
     private final CommentRepository commentRepository;
     private final NotificationService notificationService;
-    private final com.hoanghuy04.instagrambackend.repository.UserRepository userRepository;
+    private final ExploreService exploreService;
+    private final PostCache postCache;
+    private final CounterService counterService;
+    private final LikedPostIndex likedPostIndex;
+    private final LikeWriteBehindLog likeWriteBehindLog;
+    private final PostLikePreviewService likePreviewService;
+    private final UserService userService;
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
 
     @Transactional
     @Override
     public PostLikeToggleResponse toggleLikePost(String postId) {
         User currentUser = securityUtil.getCurrentUser();
 
-        Post post = postRepository.findById(postId)
+        // Only the author is needed, for the notification
+        String authorId = postRepository.findAuthorId(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
 
-        Optional<Like> existing = likeRepository.findByUserAndTargetTypeAndTargetId(
-                currentUser,
-                LikeTargetType.POST,
-                postId
-        );
-
-        boolean liked;
-        if (existing.isPresent()) {
-            likeRepository.delete(existing.get());
-            post.setTotalLikes(Math.max(0, post.getTotalLikes() - 1));
-            liked = false;
-        } else {
-            Like like = Like.builder()
-                    .user(currentUser)
-                    .targetType(LikeTargetType.POST)
-                    .targetId(postId)
-                    .build();
-
-            likeRepository.save(like);
-            post.setTotalLikes(post.getTotalLikes() + 1);
-            liked = true;
-
+        // Flipped atomically per (user, post): concurrent taps each see the other's
+        // result, so every ±1 below matches a real state change. The index is
+        // updated under the same lock, so it cannot end up in the older state.
+        boolean liked = likeWriteBehindLog.toggle(currentUser, postId,
+                () -> likedPostIndex.isLiked(currentUser, postId),
+                nowLiked -> likedPostIndex.onToggled(currentUser.getId(), postId, nowLiked));
+        if (liked) {
             // 🔔 noti cho chủ bài viết khi được like (trừ tự like)
-            User postAuthor = post.getAuthor();
-            if (postAuthor != null && !postAuthor.getId().equals(currentUser.getId())) {
-                notificationService.createLikePostNotification(
-                        postAuthor.getId(),
-                        post.getId()
-                );
+            if (!authorId.equals(currentUser.getId())) {
+                notificationService.createLikePostNotification(authorId, postId);
             }
         }
 
-        postRepository.save(post);
+        long delta = liked ? 1 : -1;
+        counterService.add(CounterField.POST_LIKES, postId, delta);
+
+        postCache.adjustCounters(postId, delta, 0);
+        exploreService.onEngagement(postId, delta, 0);
 
         return PostLikeToggleResponse.builder()
                 .postId(postId)
@@ -92,14 +105,12 @@ public class PostLikeServiceImpl implements PostLikeService {
         Page<Like> likePage;
 
         if (query != null && !query.trim().isEmpty()) {
-            var users = userRepository.findByUsernameContainingIgnoreCase(query.trim());
-            if (users.isEmpty()) {
-                return PageResponse.of(Page.empty(pageable));
-            }
-            likePage = likeRepository.findByTargetTypeAndTargetIdAndUserIn(
+            // Anchored, case-normalized prefix: an index range scan over this post's likers only
+            String prefix = userService.normalizeUsername(query.trim());
+            likePage = likeRepository.findByTargetAndUserSearchRegex(
                     LikeTargetType.POST,
                     postId,
-                    users,
+                    "^" + escapeRegex(prefix),
                     pageable
             );
         } else {
@@ -130,18 +141,55 @@ public class PostLikeServiceImpl implements PostLikeService {
     }
 
 
-    private PostLikeUserResponse mapUserToPostLikeUserResponse(User user) {
-        String avatarUrl = null;
-
-        if (user != null) {
-            avatarUrl = user.getProfile().getAvatar();
+    @Override
+    public PostLikePreviewResponse getLikePreview(String postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found");
         }
+        return likePreviewService.getPreview(postId, securityUtil.getCurrentUser());
+    }
 
-        PostLikeUserResponse dto = new PostLikeUserResponse();
-        dto.setId(user.getId());
-        dto.setUsername(user.getUsername());
-        dto.setAvatar(avatarUrl);
+    /**
+     * Likes that predate the denormalized liker username get it filled in,
+     * one bulk update per batch of distinct likers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLikerSearch() {
+        Query missing = Query.query(Criteria.where("userSearch").exists(false)).limit(BACKFILL_BATCH_SIZE);
+        missing.fields().include("user").exclude("_id");
+
+        long updated = MongoDocs.backfill(mongoTemplate, "likes", missing, batch -> {
+            Set<String> userIds = batch.stream()
+                    .map(doc -> doc.get("user"))
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .collect(Collectors.toSet());
+            Map<String, String> searchByUser = userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, u -> userService.normalizeUsername(u.getUsername())));
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "likes");
+            for (String userId : userIds) {
+                // likers that no longer exist get an empty value
+                bulk.updateMulti(
+                        Query.query(Criteria.where("user").is(MongoDocs.toObjectId(userId))
+                                .and("userSearch").exists(false)),
+                        new Update().set("userSearch", searchByUser.getOrDefault(userId, ""))
+                );
+            }
+            // likes without a user reference at all
+            bulk.updateMulti(
+                    Query.query(Criteria.where("user").exists(false).and("userSearch").exists(false)),
+                    new Update().set("userSearch", "")
+            );
+            return bulk.execute().getModifiedCount();
+        });
+
+        if (updated > 0) {
+            log.info("Backfilled liker username on {} likes", updated);
+        }
+    }
 
-        return dto;
+    private String escapeRegex(String value) {
+        return value.replaceAll("[\\W]", "\\\\$0");
     }
 }
@@ -0,0 +1,32 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.entity.Post;
+
+import java.util.List;
+
+/**
+ * Background pipeline for the side effects of publishing a post.
+ * Hashtag counters, mention rows, follower timeline fan-out and mention
+ * notifications are stored as durable tasks and run by a worker with retry,
+ * so publishing latency does not grow with tags, mentions or followers.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface PostPublishPipeline {
+
+    /**
+     * Schedule the publish stages of a freshly saved post.
+     *
+     * @param post the saved post
+     * @param tags normalized tags of the post
+     */
+    void enqueue(Post post, List<String> tags);
+
+    /**
+     * Drop the pending tasks of a deleted post.
+     *
+     * @param postId the post ID
+     */
+    void cancel(String postId);
+}
@@ -0,0 +1,222 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.hoanghuy04.instagrambackend.entity.Mention;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.PostPipelineTask;
+import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
+import com.hoanghuy04.instagrambackend.enums.PipelineTaskStatus;
+import com.hoanghuy04.instagrambackend.enums.PostPipelineStage;
+import com.hoanghuy04.instagrambackend.repository.MentionRepository;
+import com.hoanghuy04.instagrambackend.repository.PostPipelineTaskRepository;
+import com.hoanghuy04.instagrambackend.repository.PostRepository;
+import com.hoanghuy04.instagrambackend.service.feed.TimelineService;
+import com.hoanghuy04.instagrambackend.service.hashtag.HashtagService;
+import com.hoanghuy04.instagrambackend.service.mention.MentionService;
+import com.hoanghuy04.instagrambackend.service.notification.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostPublishPipelineImpl implements PostPublishPipeline {
+
+    private final MongoTemplate mongoTemplate;
+    private final PostPipelineTaskRepository taskRepository;
+    private final PostRepository postRepository;
+    private final MentionRepository mentionRepository;
+    private final HashtagService hashtagService;
+    private final MentionService mentionService;
+    private final TimelineService timelineService;
+    private final NotificationService notificationService;
+
+    @Value("${app.post-pipeline.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.post-pipeline.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.post-pipeline.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    @Value("${app.post-pipeline.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.post-pipeline.lease-ms:60000}")
+    private long leaseMs;
+
+    // ==============================
+    // ENQUEUE
+    // ==============================
+    @Override
+    public void enqueue(Post post, List<String> tags) {
+        String authorId = post.getAuthor().getId();
+
+        List<PostPipelineTask> tasks = new ArrayList<>();
+        if (!tags.isEmpty()) {
+            tasks.add(newTask(post.getId(), authorId, PostPipelineStage.HASHTAGS, tags));
+        }
+        tasks.add(newTask(post.getId(), authorId, PostPipelineStage.MENTIONS, List.of()));
+        tasks.add(newTask(post.getId(), authorId, PostPipelineStage.FAN_OUT, List.of()));
+
+        taskRepository.insert(tasks);
+    }
+
+    @Override
+    public void cancel(String postId) {
+        taskRepository.deleteByPostId(postId);
+    }
+
+    // ==============================
+    // WORKER
+    // ==============================
+
+    /**
+     * Claim and run due tasks, up to one batch per tick.
+     */
+    @Scheduled(fixedDelayString = "${app.post-pipeline.poll-interval-ms:500}")
+    public void processDueTasks() {
+        for (int i = 0; i < batchSize; i++) {
+            PostPipelineTask task = claimNext();
+            if (task == null) {
+                return;
+            }
+            run(task);
+        }
+    }
+
+    /**
+     * Atomically move one due task to RUNNING, taking a lease on it.
+     * Tasks left RUNNING past their lease are taken over.
+     */
+    private PostPipelineTask claimNext() {
+        Instant now = Instant.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(PipelineTaskStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(PipelineTaskStatus.RUNNING).and("leaseUntil").lte(now)
+        )).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        Update update = new Update()
+                .set("status", PipelineTaskStatus.RUNNING)
+                .set("leaseUntil", now.plusMillis(leaseMs))
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                PostPipelineTask.class
+        );
+    }
+
+    private void run(PostPipelineTask task) {
+        try {
+            switch (task.getStage()) {
+                case HASHTAGS -> hashtagService.increaseUsage(task.getPostId(), task.getTags());
+                case MENTIONS -> runMentions(task);
+                case FAN_OUT -> findPost(task).ifPresent(timelineService::fanOutPost);
+                case NOTIFICATIONS -> runNotifications(task);
+            }
+            taskRepository.deleteById(task.getId());
+        } catch (Exception e) {
+            reschedule(task, e);
+        }
+    }
+
+    private void runMentions(PostPipelineTask task) {
+        Optional<Post> post = findPost(task);
+        if (post.isEmpty()) {
+            return;
+        }
+
+        List<String> mentionedIds = mentionService.syncMentions(
+                MentionTargetType.POST,
+                task.getPostId(),
+                post.get().getCaption(),
+                task.getAuthorId()
+        );
+
+        // Notifications read the mention rows, so they are chained after this stage.
+        // The chained task has a fixed ID so a re-run of this stage does not enqueue it twice.
+        if (!mentionedIds.isEmpty()) {
+            PostPipelineTask notifications = newTask(task.getPostId(), task.getAuthorId(), PostPipelineStage.NOTIFICATIONS, List.of());
+            notifications.setId(task.getPostId() + ":" + PostPipelineStage.NOTIFICATIONS.name());
+            try {
+                taskRepository.insert(notifications);
+            } catch (DuplicateKeyException e) {
+                log.debug("Notifications already queued for post {}", task.getPostId());
+            }
+        }
+    }
+
+    private void runNotifications(PostPipelineTask task) {
+        if (!postRepository.existsById(task.getPostId())) {
+            return;
+        }
+        for (Mention mention : mentionRepository.findByTargetTypeAndTargetId(MentionTargetType.POST, task.getPostId())) {
+            notificationService.createTagInPostNotification(
+                    task.getAuthorId(),
+                    mention.getMentionedUserId(),
+                    task.getPostId()
+            );
+        }
+    }
+
+    private void reschedule(PostPipelineTask task, Exception e) {
+        Update update = new Update().set("lastError", e.getMessage()).unset("leaseUntil");
+
+        if (task.getAttempts() >= maxAttempts) {
+            update.set("status", PipelineTaskStatus.FAILED);
+            log.error("Post pipeline task {} ({}) for post {} failed after {} attempts",
+                    task.getId(), task.getStage(), task.getPostId(), task.getAttempts(), e);
+        } else {
+            long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(task.getAttempts() - 1, 20));
+            update.set("status", PipelineTaskStatus.PENDING)
+                    .set("nextAttemptAt", Instant.now().plus(Duration.ofMillis(backoff)));
+            log.warn("Post pipeline task {} ({}) for post {} failed, retry in {} ms: {}",
+                    task.getId(), task.getStage(), task.getPostId(), backoff, e.getMessage());
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(task.getId())), update, PostPipelineTask.class);
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+
+    /**
+     * A missing post means it was deleted meanwhile; the stage has nothing left to do.
+     */
+    private Optional<Post> findPost(PostPipelineTask task) {
+        return postRepository.findById(task.getPostId());
+    }
+
+    private PostPipelineTask newTask(String postId, String authorId, PostPipelineStage stage, List<String> tags) {
+        Instant now = Instant.now();
+        return PostPipelineTask.builder()
+                .postId(postId)
+                .authorId(authorId)
+                .stage(stage)
+                .status(PipelineTaskStatus.PENDING)
+                .tags(new ArrayList<>(tags))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.hoanghuy04.instagrambackend.service.post;
 import com.hoanghuy04.instagrambackend.dto.request.CreatePostRequest;
 import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
+import com.hoanghuy04.instagrambackend.dto.response.PostDeletionJobResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PostResponse;
 import com.hoanghuy04.instagrambackend.dto.response.UserResponse;
 import com.hoanghuy04.instagrambackend.entity.Post;
@@ -25,20 +26,34 @@ public interface PostService {
     @Transactional(readOnly = true)
     PageResponse<PostResponse> getUserPosts(String userId, Pageable pageable);
 
+    @Transactional(readOnly = true)
+    PageResponse<PostResponse> getUserPostsByCursor(String userId, String cursor, int size);
+
     @Transactional(readOnly = true)
     PageResponse<PostResponse> getFeedPosts(Pageable pageable);
 
+    @Transactional(readOnly = true)
+    PageResponse<PostResponse> getFeedPostsByCursor(String cursor, int size);
+
+    PostStream streamFeedPosts(String cursor, int size);
+
     @Transactional(readOnly = true)
     PageResponse<PostResponse> getPostsByType(PostType type, Pageable pageable);
 
     @Transactional(readOnly = true)
     PageResponse<PostResponse> getExplore(Pageable pageable);
 
+    @Transactional(readOnly = true)
+    PageResponse<PostResponse> getExploreByCursor(String cursor, int size);
+
     @Transactional
     PostResponse updatePost(String postId, CreatePostRequest request);
 
     @Transactional
-    void deletePost(String postId);
+    PostDeletionJobResponse deletePost(String postId);
+
+    @Transactional(readOnly = true)
+    PostDeletionJobResponse getDeletionJob(String jobId);
 
     @Transactional(readOnly = true)
     Post getPostEntityById(String postId);
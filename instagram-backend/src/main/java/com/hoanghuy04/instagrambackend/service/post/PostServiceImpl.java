@@ -1,39 +1,43 @@
 package com.hoanghuy04.instagrambackend.service.post;
 
 import com.hoanghuy04.instagrambackend.dto.request.CreatePostRequest;
-import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
+import com.hoanghuy04.instagrambackend.dto.response.PostDeletionJobResponse;
 import com.hoanghuy04.instagrambackend.dto.response.PostResponse;
-import com.hoanghuy04.instagrambackend.dto.response.UserSummaryResponse;
-import com.hoanghuy04.instagrambackend.dto.response.*;
-import com.hoanghuy04.instagrambackend.mapper.UserMapper;
-import com.hoanghuy04.instagrambackend.entity.*;
-import com.hoanghuy04.instagrambackend.enums.LikeTargetType;
+import com.hoanghuy04.instagrambackend.entity.Hashtag;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.PostDeletionJob;
+import com.hoanghuy04.instagrambackend.entity.User;
 import com.hoanghuy04.instagrambackend.enums.MentionTargetType;
 import com.hoanghuy04.instagrambackend.enums.PostType;
 import com.hoanghuy04.instagrambackend.exception.ResourceNotFoundException;
 import com.hoanghuy04.instagrambackend.exception.UnauthorizedException;
-import com.hoanghuy04.instagrambackend.mapper.UserMapper;
-import com.hoanghuy04.instagrambackend.repository.*;
-import com.hoanghuy04.instagrambackend.service.FileService;
+import com.hoanghuy04.instagrambackend.repository.MentionRepository;
+import com.hoanghuy04.instagrambackend.repository.PostDeletionJobRepository;
+import com.hoanghuy04.instagrambackend.repository.PostRepository;
+import com.hoanghuy04.instagrambackend.service.explore.ExploreService;
+import com.hoanghuy04.instagrambackend.service.feed.TimelineService;
+import com.hoanghuy04.instagrambackend.service.feed.TimelineSlice;
 import com.hoanghuy04.instagrambackend.service.hashtag.HashtagService;
-import com.hoanghuy04.instagrambackend.service.user.UserService;
-import com.hoanghuy04.instagrambackend.util.MentionUtil;
+import com.hoanghuy04.instagrambackend.service.mention.MentionService;
+import com.hoanghuy04.instagrambackend.service.reel.ReelService;
+import com.hoanghuy04.instagrambackend.util.CursorUtil;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import com.hoanghuy04.instagrambackend.util.RankedSnapshots;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,34 +45,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
 
-    private final UserMapper userMapper;
     private final PostRepository postRepository;
-    private final FollowRepository followRepository;
-    private final FileService fileService;
-    private final LikeRepository likeRepository;
-    private final CommentRepository commentRepository;
-    private final MediaFileRepository mediaFileRepository;
-    private final UserRepository userRepository;
     private final MentionRepository mentionRepository;
     private final SecurityUtil securityUtil;
-    private final MentionUtil mentionUtil;
     private final HashtagService hashtagService;
-    private final HashtagRepository hashtagRepository;
+    private final MentionService mentionService;
+    private final PostPublishPipeline postPublishPipeline;
+    private final PostCascadeDeleter postCascadeDeleter;
+    private final PostDeletionJobRepository postDeletionJobRepository;
+    private final TimelineService timelineService;
+    private final PostHydrator postHydrator;
+    private final PostStreamWriter postStreamWriter;
+    private final ExploreService exploreService;
+    private final PostCache postCache;
+    private final ReelService reelService;
 
     @Transactional
     @Override
     public PostResponse createPost(CreatePostRequest request) {
         User author = securityUtil.getCurrentUser();
 
-        List<Hashtag> tags = new ArrayList<>();
-        for (String rawTag : request.getTags()) {
-            String tag = rawTag.trim().toLowerCase();
-            if (tag.isEmpty()) continue;
-            hashtagService.increaseUsage(tag);
-            Hashtag hashtag = hashtagRepository.findByTag(tag)
-                    .orElseThrow(() -> new RuntimeException("Failed to load hashtag"));
-            tags.add(hashtag);
-        }
+        List<Hashtag> tags = hashtagService.findOrCreateAll(request.getTags());
 
         Post post = Post.builder()
                 .author(author)
@@ -84,70 +81,122 @@ public class PostServiceImpl implements PostService {
         post = postRepository.save(post);
         log.info("Post created successfully: {}", post.getId());
 
-        syncMentions(MentionTargetType.POST, post.getId(), request.getCaption(), author.getId());
+        // Hashtag counters, mentions, fan-out and notifications run in the background
+        postPublishPipeline.enqueue(post, tags.stream().map(Hashtag::getTag).toList());
+        exploreService.onPostCreated(post.getId(), author.getId());
 
-        return convertToPostResponse(post);
+        return postHydrator.hydrate(post, author);
     }
 
     @Transactional(readOnly = true)
     @Override
     public PostResponse getPost(String postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+        PostResponse response = postCache.get(postId, () -> {
+            List<Post> post = postRepository.loadAll(List.of(postId));
+            if (post.isEmpty()) {
+                throw new ResourceNotFoundException("Post not found");
+            }
+            return postHydrator.hydrateBase(post).get(0);
+        });
 
-        return convertToPostResponse(post);
+        postHydrator.applyViewer(List.of(response), currentUserOrNull());
+        return response;
     }
 
     @Transactional(readOnly = true)
     @Override
     public PageResponse<PostResponse> getAllPosts(Pageable pageable) {
-        Page<PostResponse> page = postRepository.findAll(pageable)
-                .map(this::convertToPostResponse);
-        return PageResponse.of(page);
+        Page<Post> postPage = postRepository.loadPage(null, pageable);
+        return buildPostResponsePage(currentUserOrNull(), postPage);
     }
 
     @Transactional(readOnly = true)
     @Override
     public PageResponse<PostResponse> getUserPosts(String userId, Pageable pageable) {
+        User currentUser = currentUserOrNull();
 
-        User currentUser = null;
-        try {
-            currentUser = securityUtil.getCurrentUser();
-        } catch (Exception ignored) {}
-
-        Page<Post> postPage = postRepository.findByAuthorId(userId, pageable);
+        Object authorRef = MongoDocs.toObjectId(userId);
+        Page<Post> postPage = postRepository.loadPage(Criteria.where("author").is(authorRef), pageable);
 
         return buildPostResponsePage(currentUser, postPage);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public PageResponse<PostResponse> getUserPostsByCursor(String userId, String cursor, int size) {
+        User currentUser = currentUserOrNull();
+
+        List<Post> posts = postRepository.findLatestBefore(List.of(userId), CursorUtil.decode(cursor), size + 1);
+
+        return buildPostResponseSlice(currentUser, posts, size);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public PageResponse<PostResponse> getFeedPosts(Pageable pageable) {
         User currentUser = securityUtil.getCurrentUser();
-        Page<Post> postPage = postRepository.findAll(pageable);
+        Page<Post> postPage = timelineService.getTimelinePage(currentUser.getId(), pageable);
         return buildPostResponsePage(currentUser, postPage);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public PageResponse<PostResponse> getFeedPostsByCursor(String cursor, int size) {
+        User currentUser = securityUtil.getCurrentUser();
+        TimelineSlice slice = timelineService.getTimelineSlice(currentUser.getId(), CursorUtil.decode(cursor), size);
+        return PageResponse.ofCursor(postHydrator.hydrate(slice.getPosts(), currentUser), size, slice.getNextCursor());
+    }
+
+    @Override
+    public PostStream streamFeedPosts(String cursor, int size) {
+        User currentUser = securityUtil.getCurrentUser();
+        TimelineSlice slice = timelineService.getTimelineSlice(currentUser.getId(), CursorUtil.decode(cursor), size);
+
+        // The body runs on an async thread: everything it needs is resolved here
+        List<Post> posts = slice.getPosts();
+        return new PostStream(slice.getNextCursor(), out -> postStreamWriter.write(posts, currentUser, out));
+    }
+
     @Transactional(readOnly = true)
     @Override
     public PageResponse<PostResponse> getPostsByType(PostType type, Pageable pageable) {
         User currentUser = securityUtil.getCurrentUser();
-        Page<Post> postPage = postRepository.findByType(type, pageable);
+        Page<Post> postPage = postRepository.loadPage(Criteria.where("type").is(type.name()), pageable);
         return buildPostResponsePage(currentUser, postPage);
     }
 
     @Transactional(readOnly = true)
     @Override
     public PageResponse<PostResponse> getExplore(Pageable pageable) {
-        Page<PostResponse> page = postRepository.findAll(pageable)
-                .map(this::convertToPostResponse);
-        return PageResponse.of(page);
+        User currentUser = currentUserOrNull();
+        List<String> rankedIds = exploreService.getRankedPostIds(currentUser != null ? currentUser.getId() : null);
+
+        List<String> pageIds = rankedIds.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+
+        Page<Post> postPage = new PageImpl<>(loadPostsInOrder(pageIds), pageable, rankedIds.size());
+        return buildPostResponsePage(currentUser, postPage);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PageResponse<PostResponse> getExploreByCursor(String cursor, int size) {
+        User currentUser = securityUtil.getCurrentUser();
+
+        // The cursor pins the ranking snapshot it was read from, so re-ranking between pages is invisible
+        RankedSnapshots.Slice<String> slice = exploreService.getRankedPage(currentUser.getId(), cursor, size);
+
+        List<PostResponse> content = postHydrator.hydrate(loadPostsInOrder(slice.items()), currentUser);
+        return PageResponse.ofCursor(content, size, slice.nextCursor());
     }
 
     @Transactional
     @Override
     public PostResponse updatePost(String postId, CreatePostRequest request) {
-        String userId = securityUtil.getCurrentUserId();
+        User currentUser = securityUtil.getCurrentUser();
+        String userId = currentUser.getId();
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
@@ -156,17 +205,8 @@ public class PostServiceImpl implements PostService {
             throw new UnauthorizedException("You are not authorized to update this post");
         }
 
-        List<Hashtag> newTags = new ArrayList<>();
-
-        for (String rawTag : request.getTags()) {
-            String cleanTag = rawTag.trim().toLowerCase();
-            if (cleanTag.isEmpty()) continue;
-            hashtagService.increaseUsage(cleanTag);
-            Hashtag tagEntity = hashtagRepository.findByTag(cleanTag)
-                    .orElseThrow(() -> new RuntimeException("Failed to load hashtag: " + cleanTag));
-
-            newTags.add(tagEntity);
-        }
+        List<Hashtag> newTags = hashtagService.findOrCreateAll(request.getTags());
+        hashtagService.increaseUsage(newTags.stream().map(Hashtag::getTag).toList());
 
         post.setCaption(request.getCaption());
         post.setType(request.getType());
@@ -175,16 +215,17 @@ public class PostServiceImpl implements PostService {
         post.setLocation(request.getLocation());
 
         post = postRepository.save(post);
+        postCache.invalidate(postId);
 
-        syncMentions(MentionTargetType.POST, postId, request.getCaption(), userId);
+        mentionService.syncMentions(MentionTargetType.POST, postId, request.getCaption(), userId);
 
-        return convertToPostResponse(post);
+        return postHydrator.hydrate(post, currentUser);
     }
 
 
     @Transactional
     @Override
-    public void deletePost(String postId) {
+    public PostDeletionJobResponse deletePost(String postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
 
@@ -194,30 +235,33 @@ public class PostServiceImpl implements PostService {
             throw new UnauthorizedException("You don't have permission to delete this post");
         }
 
-        likeRepository.deleteByTargetTypeAndTargetId(LikeTargetType.POST, postId);
-
-        List<Comment> allComments = commentRepository.findByPost_Id(postId);
-        if (!allComments.isEmpty()) {
-            List<String> commentIds = allComments.stream().map(Comment::getId).toList();
+        // No transaction spans these writes: the job is saved first and deletes the post
+        // itself too, so a failure after this point is finished by the background worker
+        PostDeletionJob job = postCascadeDeleter.schedule(post, current.getId());
 
-            likeRepository.deleteByTargetTypeAndTargetIdIn(LikeTargetType.COMMENT, commentIds);
+        // The post disappears right away; likes, comments and media are removed in the background
+        postRepository.delete(post);
+        mentionRepository.deleteByTargetTypeAndTargetId(MentionTargetType.POST, postId);
 
-            // delete mentions inside comments
-            commentIds.forEach(id ->
-                    mentionRepository.deleteByTargetTypeAndTargetId(MentionTargetType.COMMENT, id)
-            );
+        postPublishPipeline.cancel(postId);
+        postCache.invalidate(postId);
+        exploreService.onPostDeleted(postId);
+        reelService.onPostDeleted(postId);
 
-            commentRepository.deleteAll(allComments);
-        }
+        return toDeletionJobResponse(job);
+    }
 
-        // delete post mentions
-        mentionRepository.deleteByTargetTypeAndTargetId(MentionTargetType.POST, postId);
+    @Transactional(readOnly = true)
+    @Override
+    public PostDeletionJobResponse getDeletionJob(String jobId) {
+        PostDeletionJob job = postDeletionJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Deletion job not found"));
 
-        // delete media
-        List<MediaFile> medias = mediaFileRepository.findAllById(post.getMediaFileIds());
-        medias.forEach(media -> fileService.deleteFile(media.getId()));
+        if (!job.getRequestedBy().equals(securityUtil.getCurrentUserId())) {
+            throw new UnauthorizedException("You don't have permission to view this deletion job");
+        }
 
-        postRepository.delete(post);
+        return toDeletionJobResponse(job);
     }
 
     // ==============================
@@ -230,98 +274,62 @@ public class PostServiceImpl implements PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
     }
 
-    // ==============================
-    // CONVERT TO DTO
-    // ==============================
-    private PostResponse convertToPostResponse(Post post) {
-        User author = post.getAuthor();
-        boolean following = false;
-
-        try {
-            User current = securityUtil.getCurrentUser();
+    private PageResponse<PostResponse> buildPostResponsePage(User currentUser, Page<Post> page) {
+        List<PostResponse> content = postHydrator.hydrate(page.getContent(), currentUser);
+        return PageResponse.of(new PageImpl<>(content, page.getPageable(), page.getTotalElements()));
+    }
 
-            if (current != null && !current.getId().equals(author.getId())) {
-                following = followRepository.existsByFollowerIdAndFollowingId(
-                        current.getId(),
-                        author.getId()
-                );
-            }
+    /**
+     * Build a cursor-mode page from up to {@code size + 1} posts; the extra
+     * post only signals that a next slice exists.
+     */
+    private PageResponse<PostResponse> buildPostResponseSlice(User currentUser, List<Post> posts, int size) {
+        boolean hasNext = posts.size() > size;
+        List<Post> slice = hasNext ? posts.subList(0, size) : posts;
 
-        } catch (Exception ignored) {}
-
-        List<HashtagResponse> hashtagResponses = post.getTags()
-                .stream()
-                .map(tag -> HashtagResponse.builder()
-                        .id(tag.getId())
-                        .tag(tag.getTag())
-                        .usageCount(tag.getUsageCount())
-                        .build()
-                ).toList();
-
-        UserSummaryResponse authorSummary = userMapper.toUserSummary(author, following);
-        List<MediaFileResponse> media = fileService.getMediaFileResponses(post.getMediaFileIds());
-
-        return PostResponse.builder()
-                .id(post.getId())
-                .author(authorSummary)
-                .caption(post.getCaption())
-                .type(post.getType())
-                .media(media)
-                .totalComment(post.getTotalComments())
-                .totalLike(post.getTotalLikes())
-                .tags(hashtagResponses)
-                .location(post.getLocation())
-                .createdAt(post.getCreatedAt())
-                .updatedAt(post.getUpdatedAt())
-                .build();
-    }
+        List<PostResponse> content = postHydrator.hydrate(slice, currentUser);
 
-    private void syncMentions(
-            MentionTargetType targetType,
-            String targetId,
-            String caption,
-            String createdByUserId
-    ) {
-        // Remove old mentions
-        mentionRepository.deleteByTargetTypeAndTargetId(targetType, targetId);
-
-        List<String> usernames = mentionUtil.extractMentionUsernames(caption);
-        if (usernames.isEmpty()) {
-            return;
+        String nextCursor = null;
+        if (hasNext) {
+            Post last = slice.get(slice.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
         }
 
-        List<User> users = userRepository.findByUsernameIn(usernames);
-        if (users.isEmpty()) {
-            return;
-        }
+        return PageResponse.ofCursor(content, size, nextCursor);
+    }
 
-        List<Mention> mentions = users.stream()
-                .map(u -> Mention.builder()
-                        .targetType(targetType)
-                        .targetId(targetId)
-                        .createdByUserId(createdByUserId)
-                        .mentionedUserId(u.getId())
-                        .build())
+    private List<Post> loadPostsInOrder(List<String> postIds) {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Post> byId = postRepository.loadAll(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, p -> p));
+        return postIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
-
-        mentionRepository.saveAll(mentions);
     }
 
-    private PageResponse<PostResponse> buildPostResponsePage(User currentUser, Page<Post> page) {
-        Set<String> likedPostIds = currentUser != null
-                ? likeRepository.findByUserAndTargetTypeAndTargetIdIn(
-                currentUser,
-                LikeTargetType.POST,
-                page.stream().map(Post::getId).toList()
-        ).stream().map(Like::getTargetId).collect(Collectors.toSet())
-                : Collections.emptySet();
-
-        Page<PostResponse> dtoPage = page.map(post -> {
-            PostResponse dto = convertToPostResponse(post);
-            dto.setLikedByCurrentUser(likedPostIds.contains(post.getId()));
-            return dto;
-        });
+    private PostDeletionJobResponse toDeletionJobResponse(PostDeletionJob job) {
+        return PostDeletionJobResponse.builder()
+                .jobId(job.getId())
+                .postId(job.getPostId())
+                .status(job.getStatus())
+                .postLikesDeleted(job.getPostLikesDeleted())
+                .commentsDeleted(job.getCommentsDeleted())
+                .commentLikesDeleted(job.getCommentLikesDeleted())
+                .mentionsDeleted(job.getMentionsDeleted())
+                .mediaFilesDeleted(job.getMediaFilesDeleted())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
 
-        return PageResponse.of(dtoPage);
+    private User currentUserOrNull() {
+        try {
+            return securityUtil.getCurrentUser();
+        } catch (Exception ignored) {
+            return null;
+        }
     }
 }
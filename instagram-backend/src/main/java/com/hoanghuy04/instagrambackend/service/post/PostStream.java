@@ -0,0 +1,25 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * A slice of posts ready to be streamed as NDJSON.
+ * The slice is read up front, so the next cursor is known before the
+ * first post is written; hydration happens while the body is written.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class PostStream {
+
+    /**
+     * Cursor for the next slice, null on the last one
+     */
+    private final String nextCursor;
+
+    private final StreamingResponseBody body;
+}
@@ -0,0 +1,47 @@
+package com.hoanghuy04.instagrambackend.service.post;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoanghuy04.instagrambackend.dto.response.PostResponse;
+import com.hoanghuy04.instagrambackend.entity.Post;
+import com.hoanghuy04.instagrambackend.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes hydrated posts as NDJSON (one PostResponse per line).
+ * Posts are hydrated in chunks that start at a single post and double up to
+ * a cap, so the first line is flushed after hydrating just one post while
+ * the rest of the page still amortizes its {@code $in} lookups.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class PostStreamWriter {
+
+    private static final byte NEWLINE = '\n';
+
+    private final PostHydrator postHydrator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.feed.stream-max-chunk:16}")
+    private int maxChunk;
+
+    public void write(List<Post> posts, User viewer, OutputStream out) throws IOException {
+        int chunk = 1;
+        for (int from = 0; from < posts.size(); from += chunk, chunk = Math.min(chunk * 2, maxChunk)) {
+            List<Post> slice = posts.subList(from, Math.min(from + chunk, posts.size()));
+            for (PostResponse response : postHydrator.hydrate(slice, viewer)) {
+                out.write(objectMapper.writeValueAsBytes(response));
+                out.write(NEWLINE);
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.hoanghuy04.instagrambackend.service.reel;
+
+import com.hoanghuy04.instagrambackend.dto.response.ReelManifestResponse;
+
+/**
+ * Service interface for the reels feed.
+ * Serves a compact, pre-ranked manifest of reels from memory together with
+ * a prefetch window, so the client can download the next videos early.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public interface ReelService {
+
+    /**
+     * Get a slice of the reels manifest.
+     *
+     * @param cursor opaque cursor from the previous slice, or null/empty for the first one
+     * @param size the slice size
+     * @return ReelManifestResponse
+     */
+    ReelManifestResponse getManifest(String cursor, int size);
+
+    /**
+     * Drop a deleted post from the manifest.
+     *
+     * @param postId the post ID
+     */
+    void onPostDeleted(String postId);
+}
@@ -0,0 +1,170 @@
+package com.hoanghuy04.instagrambackend.service.reel;
+
+import com.hoanghuy04.instagrambackend.dto.response.MediaFileResponse;
+import com.hoanghuy04.instagrambackend.dto.response.ReelManifestItemResponse;
+import com.hoanghuy04.instagrambackend.dto.response.ReelManifestResponse;
+import com.hoanghuy04.instagrambackend.enums.PostType;
+import com.hoanghuy04.instagrambackend.service.FileService;
+import com.hoanghuy04.instagrambackend.util.EngagementScore;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import com.hoanghuy04.instagrambackend.util.RankedSnapshots;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReelServiceImpl implements ReelService {
+
+    private static final double GRAVITY = 1.2;
+
+    private final MongoTemplate mongoTemplate;
+    private final FileService fileService;
+
+    @Value("${app.reels.candidate-limit:2000}")
+    private int candidateLimit;
+
+    @Value("${app.reels.rolling-size:500}")
+    private int rollingSize;
+
+    @Value("${app.reels.prefetch-max:3}")
+    private int prefetchMax;
+
+    @Value("${app.reels.prefetch-bytes:15728640}")
+    private long prefetchBytes;
+
+    @Value("${app.reels.snapshot-retention-ms:900000}")
+    private long snapshotRetentionMs;
+
+    private RankedSnapshots<ReelManifestItemResponse> manifest;
+
+    @PostConstruct
+    void init() {
+        manifest = new RankedSnapshots<>(ReelManifestItemResponse::getPostId, Duration.ofMillis(snapshotRetentionMs));
+    }
+
+    // ==============================
+    // READ
+    // ==============================
+    @Override
+    public ReelManifestResponse getManifest(String cursor, int size) {
+        // The cursor pins the manifest version it was read from, so a refresh between slices is invisible
+        RankedSnapshots.Slice<ReelManifestItemResponse> slice = manifest.slice(cursor, size, item -> true);
+
+        return ReelManifestResponse.builder()
+                .items(slice.items())
+                .prefetchCount(prefetchCount(slice.items()))
+                .nextCursor(slice.nextCursor())
+                .build();
+    }
+
+    @Override
+    public void onPostDeleted(String postId) {
+        manifest.remove(postId);
+    }
+
+    // ==============================
+    // SCHEDULED REFRESH
+    // ==============================
+
+    /**
+     * Rebuild the rolling manifest: score recent reels, keep the best ones and
+     * resolve their first media file with a single {@code $in} query. Each
+     * rebuild is published as a new version; clients paging an older one keep it.
+     * Reels decay slower than Explore (gravity 1.2), so a good reel stays in
+     * rotation longer. Reads raw documents, as Explore does.
+     */
+    @Scheduled(initialDelayString = "${app.reels.refresh-initial-delay-ms:0}",
+            fixedDelayString = "${app.reels.refresh-interval-ms:60000}")
+    public void refresh() {
+        Query query = new Query(Criteria.where("type").is(PostType.REEL.name()))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(candidateLimit);
+        query.fields().include("_id", "author", "mediaFileIds", "totalLikes", "totalComments", "createdAt");
+
+        Instant now = Instant.now();
+        List<Document> ranked = mongoTemplate.find(query, Document.class, "posts").stream()
+                .filter(doc -> firstMediaId(doc) != null && doc.getDate("createdAt") != null)
+                .sorted(Comparator.comparingDouble((Document doc) -> score(doc, now)).reversed())
+                .limit(rollingSize)
+                .toList();
+
+        Map<String, MediaFileResponse> mediaById = fileService.getMediaFileResponseMap(
+                ranked.stream().map(this::firstMediaId).toList()
+        );
+
+        List<ReelManifestItemResponse> items = new ArrayList<>(ranked.size());
+        for (Document doc : ranked) {
+            MediaFileResponse media = mediaById.get(firstMediaId(doc));
+            if (media == null) {
+                continue;
+            }
+            items.add(ReelManifestItemResponse.builder()
+                    .postId(doc.get("_id").toString())
+                    .authorId(MongoDocs.idOf(doc.get("author")))
+                    .mediaUrl(media.getUrl())
+                    .contentType(media.getContentType())
+                    .fileSize(media.getFileSize())
+                    .durationMs(media.getDurationMs())
+                    .build());
+        }
+
+        manifest.publish(items);
+        log.info("Reels manifest refreshed: {} reels", items.size());
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+
+    /**
+     * Prefetch the head of the slice until the byte budget is spent,
+     * always at least one item and at most {@code prefetchMax}.
+     */
+    private int prefetchCount(List<ReelManifestItemResponse> items) {
+        int count = 0;
+        long bytes = 0;
+        for (ReelManifestItemResponse item : items) {
+            if (count >= prefetchMax) {
+                break;
+            }
+            bytes += item.getFileSize() != null ? item.getFileSize() : 0;
+            if (count > 0 && bytes > prefetchBytes) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private double score(Document doc, Instant now) {
+        return EngagementScore.of(
+                MongoDocs.longOf(doc.get("totalLikes")),
+                MongoDocs.longOf(doc.get("totalComments")),
+                doc.getDate("createdAt").toInstant(),
+                now,
+                GRAVITY
+        );
+    }
+
+    private String firstMediaId(Document doc) {
+        List<?> mediaIds = doc.get("mediaFileIds", List.class);
+        if (mediaIds == null || mediaIds.isEmpty() || mediaIds.get(0) == null) {
+            return null;
+        }
+        return mediaIds.get(0).toString();
+    }
+}
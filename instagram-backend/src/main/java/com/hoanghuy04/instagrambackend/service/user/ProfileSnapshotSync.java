@@ -0,0 +1,182 @@
+package com.hoanghuy04.instagrambackend.service.user;
+
+import com.hoanghuy04.instagrambackend.entity.ProfileSyncTask;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.enums.PipelineTaskStatus;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
+import com.hoanghuy04.instagrambackend.util.StringUtil;
+import com.hoanghuy04.instagrambackend.util.MongoDocs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Propagates username / avatar changes to the snapshots other collections keep
+ * of a user: follows, comments, likes (search key), conversation members and
+ * last-message senders, and "liked by" previews.
+ * A profile change is recorded as a durable task; a worker claims due tasks
+ * and rewrites each collection with multi-document updates, retrying with
+ * backoff on failure. The in-memory follow graph is refreshed right away.
+ * Every filter below is served by an index on the snapshot's user ID field.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProfileSnapshotSync {
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowGraph followGraph;
+
+    @Value("${app.profile-sync.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.profile-sync.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.profile-sync.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    @Value("${app.profile-sync.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.profile-sync.lease-ms:300000}")
+    private long leaseMs;
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        User user = event.user();
+        followGraph.onProfileChanged(user);
+
+        Instant now = Instant.now();
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(user.getId())),
+                new Update()
+                        .set("username", user.getUsername())
+                        .set("avatar", user.getProfile() != null ? user.getProfile().getAvatar() : null)
+                        .inc("version", 1)
+                        .set("status", PipelineTaskStatus.PENDING)
+                        .set("attempts", 0)
+                        .set("nextAttemptAt", now)
+                        .set("updatedAt", now)
+                        .unset("leaseUntil"),
+                ProfileSyncTask.class
+        );
+    }
+
+    // ==============================
+    // WORKER
+    // ==============================
+    @Scheduled(fixedDelayString = "${app.profile-sync.poll-interval-ms:1000}")
+    public void processDueTasks() {
+        for (int i = 0; i < batchSize; i++) {
+            ProfileSyncTask task = claimNext();
+            if (task == null) {
+                return;
+            }
+            run(task);
+        }
+    }
+
+    private ProfileSyncTask claimNext() {
+        Instant now = Instant.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(PipelineTaskStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(PipelineTaskStatus.RUNNING).and("leaseUntil").lte(now)
+        )).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        return mongoTemplate.findAndModify(
+                query,
+                new Update()
+                        .set("status", PipelineTaskStatus.RUNNING)
+                        .set("leaseUntil", now.plusMillis(leaseMs))
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                ProfileSyncTask.class
+        );
+    }
+
+    private void run(ProfileSyncTask task) {
+        try {
+            rewrite(task.getId(), task.getUsername(), task.getAvatar());
+            // a newer edit bumped the version and stays queued
+            mongoTemplate.remove(sameVersion(task), ProfileSyncTask.class);
+        } catch (Exception e) {
+            reschedule(task, e);
+        }
+    }
+
+    private void rewrite(String userId, String username, String avatar) {
+        Object userRef = MongoDocs.toObjectId(userId);
+
+        BulkOperations follows = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "follows");
+        follows.updateMulti(Query.query(Criteria.where("followerId").is(userId)),
+                new Update().set("followerUsername", username).set("followerAvatar", avatar));
+        follows.updateMulti(Query.query(Criteria.where("followingId").is(userId)),
+                new Update().set("followingUsername", username).set("followingAvatar", avatar));
+        follows.execute();
+
+        mongoTemplate.updateMulti(Query.query(Criteria.where("author").is(userRef)),
+                new Update().set("authorUsername", username).set("authorAvatar", avatar), "comments");
+
+        mongoTemplate.updateMulti(Query.query(Criteria.where("user").is(userRef)),
+                new Update().set("userSearch", StringUtil.normalizeForSearch(username)), "likes");
+
+        BulkOperations conversations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "conversations");
+        conversations.updateMulti(Query.query(Criteria.where("participants.userId").is(userId)),
+                new Update()
+                        .set("participants.$[member].username", username)
+                        .set("participants.$[member].avatar", avatar)
+                        .filterArray(Criteria.where("member.userId").is(userId)));
+        conversations.updateMulti(Query.query(Criteria.where("leftMembers.userId").is(userId)),
+                new Update()
+                        .set("leftMembers.$[member].username", username)
+                        .set("leftMembers.$[member].avatar", avatar)
+                        .filterArray(Criteria.where("member.userId").is(userId)));
+        conversations.updateMulti(Query.query(Criteria.where("lastMessage.senderId").is(userId)),
+                new Update().set("lastMessage.senderUsername", username));
+        conversations.execute();
+
+        mongoTemplate.updateMulti(Query.query(Criteria.where("firstLikers.userId").is(userId)),
+                new Update()
+                        .set("firstLikers.$[liker].username", username)
+                        .set("firstLikers.$[liker].avatar", avatar)
+                        .filterArray(Criteria.where("liker.userId").is(userId)),
+                "post_like_previews");
+    }
+
+    private void reschedule(ProfileSyncTask task, Exception e) {
+        Update update = new Update().set("lastError", e.getMessage()).unset("leaseUntil");
+
+        if (task.getAttempts() >= maxAttempts) {
+            update.set("status", PipelineTaskStatus.FAILED);
+            log.error("Profile sync for user {} failed after {} attempts", task.getId(), task.getAttempts(), e);
+        } else {
+            long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(task.getAttempts() - 1, 20));
+            update.set("status", PipelineTaskStatus.PENDING)
+                    .set("nextAttemptAt", Instant.now().plus(Duration.ofMillis(backoff)));
+            log.warn("Profile sync for user {} failed, retry in {} ms: {}", task.getId(), backoff, e.getMessage());
+        }
+
+        mongoTemplate.updateFirst(sameVersion(task), update, ProfileSyncTask.class);
+    }
+
+    private Query sameVersion(ProfileSyncTask task) {
+        return Query.query(Criteria.where("_id").is(task.getId()).and("version").is(task.getVersion()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.hoanghuy04.instagrambackend.service.user;
+
+import com.hoanghuy04.instagrambackend.entity.User;
+
+/**
+ * Published after a user's username, name or avatar has been saved.
+ *
+ * @param user the user as saved
+ */
+public record UserProfileChangedEvent(User user) {
+}
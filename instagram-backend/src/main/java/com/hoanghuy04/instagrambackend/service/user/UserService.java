@@ -91,7 +91,7 @@ public interface UserService {
      * Get mutual follows for a user (users that both follow each other).
      *
      * @param userId the user ID
-     * @param query the search query (optional, filters by username, firstName, lastName)
+     * @param query the search query (optional, prefix of username, firstName or lastName)
      * @param page the page number (0-indexed)
      * @param size the page size
      * @return List of UserSummaryDTO representing mutual follows
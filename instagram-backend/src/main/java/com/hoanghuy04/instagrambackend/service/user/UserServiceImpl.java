@@ -5,30 +5,33 @@ import com.hoanghuy04.instagrambackend.dto.response.PageResponse;
 import com.hoanghuy04.instagrambackend.dto.response.UserResponse;
 import com.hoanghuy04.instagrambackend.dto.response.UserStatsResponse;
 import com.hoanghuy04.instagrambackend.dto.response.UserSummaryResponse;
-import com.hoanghuy04.instagrambackend.entity.Follow;
 import com.hoanghuy04.instagrambackend.entity.User;
 import com.hoanghuy04.instagrambackend.entity.UserProfile;
 import com.hoanghuy04.instagrambackend.exception.ResourceNotFoundException;
 import com.hoanghuy04.instagrambackend.mapper.UserMapper;
-import com.hoanghuy04.instagrambackend.repository.FollowRepository;
+import com.hoanghuy04.instagrambackend.service.follow.FollowGraph;
 import com.hoanghuy04.instagrambackend.repository.PostRepository;
 import com.hoanghuy04.instagrambackend.repository.UserRepository;
 import com.hoanghuy04.instagrambackend.service.FileService;
 import com.hoanghuy04.instagrambackend.util.SecurityUtil;
+import com.hoanghuy04.instagrambackend.util.StringUtil;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -47,10 +50,11 @@ public class UserServiceImpl implements UserService {
 
     UserRepository userRepository;
     PostRepository postRepository;
-    FollowRepository followRepository;
+    FollowGraph followGraph;
     FileService fileService;
     UserMapper userMapper;
     SecurityUtil securityUtil;
+    ApplicationEventPublisher eventPublisher;
 
     @Override
     public User ensureAiUser() {
@@ -94,9 +98,7 @@ public class UserServiceImpl implements UserService {
         boolean following = false;
 
         if (current != null && !current.getId().equals(user.getId())) {
-            // ĐÃ ĐỔI: dùng existsByFollowerIdAndFollowingId thay vì findByFollowerAndFollowing
-            following = followRepository
-                    .existsByFollowerIdAndFollowingId(current.getId(), user.getId());
+            following = followGraph.isFollowing(current.getId(), user.getId());
         }
 
         dto.setFollowingByCurrentUser(following);
@@ -126,6 +128,7 @@ public class UserServiceImpl implements UserService {
         if (profile == null) {
             profile = new UserProfile();
         }
+        List<String> snapshotBefore = snapshotFields(user.getUsername(), profile);
 
         if (request.getFirstName() != null) {
             profile.setFirstName(request.getFirstName());
@@ -155,6 +158,10 @@ public class UserServiceImpl implements UserService {
         user = userRepository.save(user);
         log.info("User updated successfully: {}", userId);
 
+        if (!snapshotBefore.equals(snapshotFields(user.getUsername(), profile))) {
+            eventPublisher.publishEvent(new UserProfileChangedEvent(user));
+        }
+
         return userMapper.toUserResponse(user);
     }
 
@@ -199,6 +206,13 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserResponse(user);
     }
 
+    /**
+     * Fields other collections keep snapshots of (or that the follow graph searches).
+     */
+    private List<String> snapshotFields(String username, UserProfile profile) {
+        return Arrays.asList(username, profile.getAvatar(), profile.getFirstName(), profile.getLastName());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<UserResponse> getMutualFollows(String userId, String query, int page, int size) {
@@ -207,68 +221,32 @@ public class UserServiceImpl implements UserService {
         userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        // Lấy danh sách following và followers (theo schema Follow mới: followerId / followingId)
-        List<Follow> following = followRepository.findByFollowerId(userId);
-        List<Follow> followers = followRepository.findByFollowingId(userId);
-
-        // Tạo Set để giao cắt
-        Set<String> followingIds = following.stream()
-                .map(Follow::getFollowingId)
-                .collect(Collectors.toSet());
-
-        Set<String> followerIds = followers.stream()
-                .map(Follow::getFollowerId)
-                .collect(Collectors.toSet());
-
-        // Giao cắt: mutual = vừa là following vừa là follower
-        Set<String> mutualIds = followingIds.stream()
-                .filter(followerIds::contains)
-                .collect(Collectors.toSet());
+        // Walk the sorted mutual rows only as far as this page needs
+        List<String> mutualIds = followGraph.mutuals(userId, query, (page + 1) * size);
 
         if (mutualIds.isEmpty()) {
             log.debug("No mutual follows found for user {}", userId);
             return new ArrayList<>();
         }
 
-        // Load users
-        List<User> mutualUsers = new ArrayList<>();
-        userRepository.findAllById(mutualIds).forEach(mutualUsers::add);
-
-        // Filter theo query nếu có
-        if (query != null && !query.trim().isEmpty()) {
-            String lowerQuery = query.toLowerCase();
-            mutualUsers = mutualUsers.stream()
-                    .filter(u -> {
-                        String username = u.getUsername() != null ? u.getUsername().toLowerCase() : "";
-                        String firstName = u.getProfile() != null && u.getProfile().getFirstName() != null
-                                ? u.getProfile().getFirstName().toLowerCase() : "";
-                        String lastName = u.getProfile() != null && u.getProfile().getLastName() != null
-                                ? u.getProfile().getLastName().toLowerCase() : "";
-                        return username.contains(lowerQuery) ||
-                                firstName.contains(lowerQuery) ||
-                                lastName.contains(lowerQuery);
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        // Pagination (manual)
+        // Hydrate only the requested page, keeping graph order
         int start = page * size;
-        int end = Math.min(start + size, mutualUsers.size());
-        List<User> paginatedUsers = start < mutualUsers.size()
-                ? mutualUsers.subList(start, end)
-                : new ArrayList<>();
+        if (start >= mutualIds.size()) {
+            return new ArrayList<>();
+        }
+        List<String> pageIds = mutualIds.subList(start, mutualIds.size());
+        Map<String, User> users = userRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
 
-        // Map to DTOs
-        return paginatedUsers.stream()
+        return pageIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .map(userMapper::toUserResponse)
                 .collect(Collectors.toList());
     }
 
     public String normalizeUsername(String username) {
-        if (username == null) return null;
-        String lower = username.toLowerCase();
-        return java.text.Normalizer.normalize(lower, java.text.Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "");
+        return StringUtil.normalizeForSearch(username);
     }
 
 }
@@ -0,0 +1,20 @@
+package com.hoanghuy04.instagrambackend.service.websocket;
+
+import com.hoanghuy04.instagrambackend.dto.response.CommentResponse;
+
+import java.util.Collection;
+
+/**
+ * Live comment activity per post over STOMP.
+ * Events are buffered per post and pushed as one frame per flush interval.
+ */
+public interface CommentStreamService {
+
+    void publishCreated(String postId, CommentResponse comment);
+
+    void publishLikeCount(String postId, String commentId, long totalLikes);
+
+    void publishPinned(String postId, String commentId, boolean pinned);
+
+    void publishDeleted(String postId, Collection<String> commentIds);
+}
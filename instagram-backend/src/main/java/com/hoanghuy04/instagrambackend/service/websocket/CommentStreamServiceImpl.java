@@ -0,0 +1,96 @@
+package com.hoanghuy04.instagrambackend.service.websocket;
+
+import com.hoanghuy04.instagrambackend.dto.response.CommentResponse;
+import com.hoanghuy04.instagrambackend.dto.websocket.CommentStreamFrame;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommentStreamServiceImpl implements CommentStreamService {
+
+    private static final String DESTINATION = "/topic/posts/%s/comments";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Pending frame per post. Writers only touch a batch inside compute(),
+     * and the flusher detaches it with remove(), so an event lands either in
+     * the detached batch or in a fresh one, never in between.
+     */
+    private final Map<String, Batch> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void publishCreated(String postId, CommentResponse comment) {
+        pending.compute(postId, (id, batch) -> {
+            batch = batch != null ? batch : new Batch();
+            batch.created.add(comment);
+            return batch;
+        });
+    }
+
+    @Override
+    public void publishLikeCount(String postId, String commentId, long totalLikes) {
+        pending.compute(postId, (id, batch) -> {
+            batch = batch != null ? batch : new Batch();
+            batch.likeCounts.put(commentId, totalLikes);
+            return batch;
+        });
+    }
+
+    @Override
+    public void publishPinned(String postId, String commentId, boolean pinned) {
+        pending.compute(postId, (id, batch) -> {
+            batch = batch != null ? batch : new Batch();
+            batch.pinned.put(commentId, pinned);
+            return batch;
+        });
+    }
+
+    @Override
+    public void publishDeleted(String postId, Collection<String> commentIds) {
+        pending.compute(postId, (id, batch) -> {
+            batch = batch != null ? batch : new Batch();
+            batch.deleted.addAll(commentIds);
+            commentIds.forEach(batch.likeCounts::remove);
+            commentIds.forEach(batch.pinned::remove);
+            batch.created.removeIf(comment -> commentIds.contains(comment.getId()));
+            return batch;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.comments.stream-interval-ms:250}")
+    public void flush() {
+        for (String postId : new ArrayList<>(pending.keySet())) {
+            Batch batch = pending.remove(postId);
+            if (batch == null) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(DESTINATION.formatted(postId), CommentStreamFrame.builder()
+                        .postId(postId)
+                        .created(batch.created)
+                        .likeCounts(batch.likeCounts)
+                        .pinned(batch.pinned)
+                        .deleted(batch.deleted)
+                        .build());
+            } catch (Exception e) {
+                log.error("Error sending comment frame for post {} via WebSocket", postId, e);
+            }
+        }
+    }
+
+    private static final class Batch {
+        private final List<CommentResponse> created = new ArrayList<>();
+        private final Map<String, Long> likeCounts = new LinkedHashMap<>();
+        private final Map<String, Boolean> pinned = new LinkedHashMap<>();
+        private final List<String> deleted = new ArrayList<>();
+    }
+}
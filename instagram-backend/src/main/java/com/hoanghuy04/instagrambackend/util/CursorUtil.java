@@ -0,0 +1,144 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import com.hoanghuy04.instagrambackend.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utility class for opaque keyset pagination cursors.
+ * A cursor encodes the (createdAt, id) pair of the last item of a page.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public class CursorUtil {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String SEPARATOR = "|";
+
+    private CursorUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Decoded keyset position: items strictly older than this pair come next.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final String id;
+
+        /**
+         * Check whether an item sorts after this cursor in (createdAt desc, id desc) order.
+         *
+         * @param createdAt the item creation time
+         * @param id the item ID
+         * @return true if the item belongs to the next page
+         */
+        public boolean isAfter(LocalDateTime createdAt, String id) {
+            if (createdAt == null) {
+                return false;
+            }
+            int cmp = createdAt.compareTo(this.createdAt);
+            return cmp < 0 || (cmp == 0 && id.compareTo(this.id) < 0);
+        }
+    }
+
+    /**
+     * Encode a keyset position into an opaque URL-safe cursor.
+     *
+     * @param createdAt the creation time of the last item
+     * @param id the ID of the last item
+     * @return encoded cursor, or null if there is no position
+     */
+    public static String encode(LocalDateTime createdAt, String id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        String raw = createdAt.format(FORMATTER) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor.
+     *
+     * @param cursor the encoded cursor; blank means "first page"
+     * @return decoded cursor, or null for the first page
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            String id = raw.substring(idx + 1);
+            if (idx <= 0 || !ObjectId.isValid(id)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, idx), FORMATTER), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Decoded position inside a versioned ranking snapshot.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RankCursor {
+        private final long version;
+        private final int offset;
+        private final String lastId;
+    }
+
+    /**
+     * Encode a position inside a versioned ranking snapshot.
+     *
+     * @param version the snapshot version the page was read from
+     * @param offset index of the next item in that snapshot
+     * @param lastId ID of the last item returned, used to resume once the snapshot is gone
+     * @return encoded cursor
+     */
+    public static String encodeRank(long version, int offset, String lastId) {
+        String raw = "r" + SEPARATOR + version + SEPARATOR + offset + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a ranking snapshot cursor.
+     *
+     * @param cursor the encoded cursor; blank means "first page"
+     * @return decoded cursor, or null for the first page
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static RankCursor decodeRank(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4 || !parts[0].equals("r") || parts[3].isEmpty()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            int offset = Integer.parseInt(parts[2]);
+            if (offset < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new RankCursor(Long.parseLong(parts[1]), offset, parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Time-decayed engagement score used to rank Explore and Reels:
+ * {@code (likes + 2 * comments + 1) / (ageHours + 2) ^ gravity}.
+ * A higher gravity makes scores fall off faster with age.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public class EngagementScore {
+
+    private static final double COMMENT_WEIGHT = 2.0;
+    private static final double AGE_OFFSET_HOURS = 2.0;
+
+    private EngagementScore() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Score a post at the given time.
+     *
+     * @param likes like count, negative values count as 0
+     * @param comments comment count, negative values count as 0
+     * @param createdAt when the post was created
+     * @param now the time to score at
+     * @param gravity age decay exponent
+     * @return the score
+     */
+    public static double of(long likes, long comments, Instant createdAt, Instant now, double gravity) {
+        double ageHours = Math.max(0, Duration.between(createdAt, now).toMinutes()) / 60.0;
+        double engagement = Math.max(0, likes) + COMMENT_WEIGHT * Math.max(0, comments) + 1;
+        return engagement / Math.pow(ageHours + AGE_OFFSET_HOURS, gravity);
+    }
+}
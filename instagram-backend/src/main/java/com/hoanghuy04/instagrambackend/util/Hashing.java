@@ -0,0 +1,32 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Non-cryptographic hashing shared by the probabilistic structures.
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a murmur3 finalizer for better bit spread.
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e87ebL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
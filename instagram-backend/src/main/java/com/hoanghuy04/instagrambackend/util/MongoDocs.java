@@ -0,0 +1,92 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Helpers for queries and projections that work on raw BSON documents
+ * instead of mapped entities (to avoid resolving references per row).
+ *
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class MongoDocs {
+
+    private MongoDocs() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * The stored form of an entity ID: an ObjectId when the string is one,
+     * the string itself otherwise.
+     *
+     * @param id the entity ID
+     * @return value to match {@code _id} or a reference field against
+     */
+    public static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * String form of a raw ID or reference value.
+     *
+     * @param value an ObjectId, a string or null
+     * @return the hex string / string, or null
+     */
+    public static String idOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof ObjectId oid ? oid.toHexString() : value.toString();
+    }
+
+    /**
+     * A numeric field as a long, whichever BSON number type it was stored as.
+     *
+     * @param value the raw field value
+     * @return the value, or 0 when missing or not a number
+     */
+    public static long longOf(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+
+    /**
+     * Fill in a field on documents written before it existed, one batch at a time.
+     * {@code missing} selects documents still lacking the field and carries the
+     * batch size as its limit. {@code fill} must update every document of the
+     * batch so it no longer matches, writing a placeholder when there is nothing
+     * to copy (e.g. a referenced document is gone). A batch that updates nothing
+     * stops the run rather than being read again forever.
+     *
+     * @param mongoTemplate the template
+     * @param collection the collection to backfill
+     * @param missing query for documents lacking the field, with a limit
+     * @param fill updates a batch and returns the number of documents modified
+     * @return total number of documents modified
+     */
+    public static long backfill(
+            MongoTemplate mongoTemplate,
+            String collection,
+            Query missing,
+            ToLongFunction<List<Document>> fill
+    ) {
+        long updated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(missing, Document.class, collection)).isEmpty()) {
+            long modified = fill.applyAsLong(batch);
+            if (modified == 0) {
+                log.warn("Backfill on {} made no progress on a batch of {}, stopping", collection, batch.size());
+                break;
+            }
+            updated += modified;
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,147 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Versioned snapshots of an in-memory ranking, for cursor paging.
+ * Every publish gets a new version; a cursor pins the version it was read
+ * from, so later pages come from the same order even after the ranking has
+ * been rebuilt. Snapshots are kept while clients keep paging through them.
+ * A cursor whose snapshot has expired resumes after its last item in the
+ * current ranking, or at the same offset if that item is gone.
+ *
+ * @param <T> ranked item type
+ * @author Instagram Backend Team
+ * @version 1.0.0
+ */
+public final class RankedSnapshots<T> {
+
+    private final Function<T, String> idOf;
+    private final AtomicLong versions = new AtomicLong();
+    private final Cache<Long, List<T>> retained;
+
+    /**
+     * Items removed after they were published, skipped in every snapshot.
+     */
+    private final Cache<String, Boolean> removed;
+
+    /**
+     * Latest snapshot; version and items are swapped together.
+     */
+    private volatile Versioned<T> current = new Versioned<>(0, List.of());
+
+    public RankedSnapshots(Function<T, String> idOf, Duration retention) {
+        this.idOf = idOf;
+        this.retained = Caffeine.newBuilder().expireAfterAccess(retention).build();
+        this.removed = Caffeine.newBuilder().expireAfterWrite(retention).build();
+    }
+
+    /**
+     * A page of ranked items and the cursor of the next one.
+     *
+     * @param items the page items, in rank order
+     * @param nextCursor opaque cursor for the next page, null on the last one
+     */
+    public record Slice<T>(List<T> items, String nextCursor) {
+    }
+
+    private record Versioned<T>(long version, List<T> items) {
+    }
+
+    /**
+     * Publish a new ranking; pages already being read keep their own snapshot.
+     */
+    public void publish(List<T> ranking) {
+        List<T> snapshot = List.copyOf(ranking);
+        long version = versions.incrementAndGet();
+        retained.put(version, snapshot);
+        current = new Versioned<>(version, snapshot);
+    }
+
+    /**
+     * The latest ranking, without removed items.
+     */
+    public List<T> current() {
+        return current.items().stream().filter(item -> !isRemoved(item)).toList();
+    }
+
+    /**
+     * Hide an item from the current and all retained snapshots.
+     */
+    public void remove(String id) {
+        removed.put(id, Boolean.TRUE);
+    }
+
+    /**
+     * Read the page after {@code cursor}, keeping only items accepted by {@code include}.
+     * Offsets index the unfiltered snapshot, so a filter that changes between
+     * pages (e.g. the viewer follows someone) does not shift later pages.
+     *
+     * @param cursor opaque cursor from the previous page, or null/empty for the first one
+     * @param size the page size
+     * @param include per-viewer filter
+     * @return the page
+     */
+    public Slice<T> slice(String cursor, int size, Predicate<T> include) {
+        CursorUtil.RankCursor position = CursorUtil.decodeRank(cursor);
+
+        Versioned<T> latest = current;
+        long version = latest.version();
+        List<T> snapshot = latest.items();
+        int start = 0;
+        if (position != null) {
+            List<T> pinned = retained.getIfPresent(position.getVersion());
+            if (pinned != null) {
+                version = position.getVersion();
+                snapshot = pinned;
+                start = position.getOffset();
+            } else {
+                start = resumeIndex(snapshot, position);
+            }
+        }
+
+        List<T> items = new ArrayList<>(size);
+        int index = start;
+        for (; index < snapshot.size() && items.size() < size; index++) {
+            T item = snapshot.get(index);
+            if (include.test(item) && !isRemoved(item)) {
+                items.add(item);
+            }
+        }
+
+        boolean hasNext = false;
+        for (int i = index; i < snapshot.size() && !items.isEmpty() && !hasNext; i++) {
+            T item = snapshot.get(i);
+            hasNext = include.test(item) && !isRemoved(item);
+        }
+
+        String nextCursor = hasNext
+                ? CursorUtil.encodeRank(version, index, idOf.apply(items.get(items.size() - 1)))
+                : null;
+        return new Slice<>(items, nextCursor);
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private int resumeIndex(List<T> snapshot, CursorUtil.RankCursor position) {
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (idOf.apply(snapshot.get(i)).equals(position.getLastId())) {
+                return i + 1;
+            }
+        }
+        return Math.min(position.getOffset(), snapshot.size());
+    }
+
+    private boolean isRemoved(T item) {
+        return removed.getIfPresent(idOf.apply(item)) != null;
+    }
+}
@@ -157,6 +157,20 @@ public class StringUtil {
         return str != null ? str.toUpperCase() : null;
     }
     
+    /**
+     * Normalize a string for search: lowercase with diacritics stripped.
+     *
+     * @param str the string to normalize
+     * @return normalized string
+     */
+    public static String normalizeForSearch(String str) {
+        if (str == null) {
+            return null;
+        }
+        return java.text.Normalizer.normalize(str.toLowerCase(), java.text.Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+    }
+
     /**
      * Generate a slug from a string (URL-friendly).
      *
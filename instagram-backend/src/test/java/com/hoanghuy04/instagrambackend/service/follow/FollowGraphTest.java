@@ -0,0 +1,224 @@
+package com.hoanghuy04.instagrambackend.service.follow;
+
+import com.hoanghuy04.instagrambackend.entity.Follow;
+import com.hoanghuy04.instagrambackend.entity.User;
+import com.hoanghuy04.instagrambackend.entity.UserProfile;
+import com.hoanghuy04.instagrambackend.repository.FollowRepository;
+import com.hoanghuy04.instagrambackend.repository.UserRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FollowGraphTest {
+
+    private MongoTemplate mongoTemplate;
+    private FollowRepository followRepository;
+    private FollowGraph followGraph;
+
+    private final List<Document> follows = new ArrayList<>();
+    private final List<Document> users = new ArrayList<>();
+
+    /**
+     * Runs while the rebuild is streaming the follows collection.
+     */
+    private Runnable duringRead = () -> {
+    };
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        followRepository = mock(FollowRepository.class);
+        followGraph = new FollowGraph(mongoTemplate, followRepository, mock(UserRepository.class));
+
+        when(mongoTemplate.getCollectionName(Follow.class)).thenReturn("follows");
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("follows"))).thenAnswer(invocation -> {
+            duringRead.run();
+            return List.copyOf(follows).stream();
+        });
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+                .thenAnswer(invocation -> List.copyOf(users).stream());
+
+        user("alice", "Alice", "Nguyen");
+        user("bob", "Bob", "Tran");
+        user("carol", "Carol", "Le");
+        user("dave", "Dave", "Alvarez");
+        user("erin", "Erin", "Pham");
+    }
+
+    @Test
+    void rebuildAnswersFromTheLoadedEdges() {
+        follow("alice", "bob");
+        follow("alice", "carol");
+        follow("bob", "alice");
+        follow("alice", "bob"); // duplicate edge left from before the unique index
+
+        followGraph.rebuild();
+
+        assertThat(followGraph.isLoaded()).isTrue();
+        assertThat(followGraph.isFollowing("alice", "bob")).isTrue();
+        assertThat(followGraph.isFollowing("carol", "alice")).isFalse();
+        assertThat(followGraph.followingSet("alice")).containsExactlyInAnyOrder("bob", "carol");
+        assertThat(followGraph.followersSet("alice")).containsExactly("bob");
+        assertThat(followGraph.followedAmong("alice", List.of("bob", "dave", "unknown"))).containsExactly("bob");
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    void followAndUnfollowUpdateBothRows() {
+        followGraph.rebuild();
+
+        followGraph.onFollow(profile("alice"), profile("bob"));
+        followGraph.onFollow(profile("alice"), profile("bob"));
+
+        assertThat(followGraph.followingSet("alice")).containsExactly("bob");
+        assertThat(followGraph.followersSet("bob")).containsExactly("alice");
+
+        followGraph.onUnfollow("alice", "bob");
+        followGraph.onUnfollow("alice", "bob");
+
+        assertThat(followGraph.isFollowing("alice", "bob")).isFalse();
+        assertThat(followGraph.followingSet("alice")).isEmpty();
+        assertThat(followGraph.followersSet("bob")).isEmpty();
+    }
+
+    @Test
+    void mutualsAreUsersFollowedBothWays() {
+        for (String other : List.of("bob", "carol", "dave")) {
+            follow("alice", other);
+        }
+        follow("bob", "alice");
+        follow("dave", "alice");
+        follow("erin", "alice");
+        followGraph.rebuild();
+
+        assertThat(followGraph.mutuals("alice")).containsExactlyInAnyOrder("bob", "dave");
+        assertThat(followGraph.mutuals("alice", null, 10)).containsExactlyInAnyOrder("bob", "dave");
+        assertThat(followGraph.mutuals("alice", null, 1)).hasSize(1);
+    }
+
+    @Test
+    void mutualsPrefixMatchesAnyNormalizedTerm() {
+        for (String other : List.of("bob", "carol", "dave")) {
+            follow("alice", other);
+            follow(other, "alice");
+        }
+        followGraph.rebuild();
+
+        // username, first name and last name ("Alvarez") are all searchable
+        assertThat(followGraph.mutuals("alice", "CA", 10)).containsExactly("carol");
+        assertThat(followGraph.mutuals("alice", "alv", 10)).containsExactly("dave");
+        assertThat(followGraph.mutuals("alice", "tr", 10)).containsExactly("bob");
+        assertThat(followGraph.mutuals("alice", "zz", 10)).isEmpty();
+    }
+
+    @Test
+    void mutualsPrefixSeesProfileChanges() {
+        follow("alice", "bob");
+        follow("bob", "alice");
+        followGraph.rebuild();
+
+        User renamed = profile("bob");
+        renamed.setUsername("robert");
+        followGraph.onProfileChanged(renamed);
+
+        assertThat(followGraph.mutuals("alice", "rob", 10)).containsExactly("bob");
+    }
+
+    @Test
+    void followersCopiesAtMostLimit() {
+        for (String other : List.of("bob", "carol", "dave", "erin")) {
+            follow(other, "alice");
+        }
+        followGraph.rebuild();
+
+        assertThat(followGraph.followers("alice", 2)).hasSize(2)
+                .isSubsetOf("bob", "carol", "dave", "erin");
+        assertThat(followGraph.followers("alice", 10)).containsExactlyInAnyOrder("bob", "carol", "dave", "erin");
+        assertThat(followGraph.followers("nobody", 10)).isEmpty();
+    }
+
+    @Test
+    void withFollowersAtLeastReadsRowLengths() {
+        for (String other : List.of("bob", "carol", "dave")) {
+            follow(other, "alice");
+        }
+        follow("alice", "bob");
+        followGraph.rebuild();
+
+        assertThat(followGraph.withFollowersAtLeast(List.of("alice", "bob", "erin"), 3)).containsExactly("alice");
+        assertThat(followGraph.withFollowersAtLeast(List.of("alice", "bob", "erin"), 1))
+                .containsExactlyInAnyOrder("alice", "bob");
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    void rebuildReplaysEdgesChangedWhileReading() {
+        follow("alice", "bob");
+        follow("alice", "carol");
+        followGraph.rebuild();
+
+        // the new snapshot was read before these writes landed
+        duringRead = () -> {
+            followGraph.onFollow(profile("carol"), profile("dave"));
+            followGraph.onUnfollow("alice", "bob");
+        };
+        followGraph.rebuild();
+
+        assertThat(followGraph.isFollowing("carol", "dave")).isTrue();
+        assertThat(followGraph.isFollowing("alice", "bob")).isFalse();
+        assertThat(followGraph.followingSet("alice")).containsExactly("carol");
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousGraph() {
+        follow("alice", "bob");
+        followGraph.rebuild();
+
+        duringRead = () -> {
+            throw new IllegalStateException("connection reset");
+        };
+        followGraph.rebuild();
+
+        assertThat(followGraph.isFollowing("alice", "bob")).isTrue();
+    }
+
+    // ==============================
+    // HELPERS
+    // ==============================
+    private void follow(String followerId, String followingId) {
+        follows.add(new Document("followerId", followerId).append("followingId", followingId));
+    }
+
+    private void user(String id, String firstName, String lastName) {
+        users.add(new Document("_id", id)
+                .append("username", id)
+                .append("profile", new Document("firstName", firstName).append("lastName", lastName)));
+    }
+
+    private User profile(String id) {
+        Document doc = users.stream().filter(u -> u.get("_id").equals(id)).findFirst().orElseThrow();
+        Document profile = doc.get("profile", Document.class);
+        return User.builder()
+                .id(id)
+                .username(doc.getString("username"))
+                .profile(UserProfile.builder()
+                        .firstName(profile.getString("firstName"))
+                        .lastName(profile.getString("lastName"))
+                        .build())
+                .build();
+    }
+}
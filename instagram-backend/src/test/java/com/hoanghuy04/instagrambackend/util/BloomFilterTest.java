@@ -0,0 +1,69 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = filled(INSERTIONS, 0.01);
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("post-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        for (double target : new double[]{0.1, 0.01, 0.001}) {
+            BloomFilter filter = filled(INSERTIONS, target);
+
+            assertThat(falsePositiveRate(filter))
+                    .as("false-positive rate for target %s", target)
+                    .isLessThanOrEqualTo(target * 1.5);
+        }
+    }
+
+    @Test
+    void overfillingDegradesTheRate() {
+        BloomFilter filter = filled(INSERTIONS * 4, 0.01, INSERTIONS);
+
+        assertThat(falsePositiveRate(filter)).isGreaterThan(0.01 * 1.5);
+    }
+
+    @Test
+    void sizeFollowsTheOptimalBitCount() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+        // m = -n ln(p) / ln(2)^2, about 9.6 bits per element at 1%
+        long optimalBytes = (long) Math.ceil(-INSERTIONS * Math.log(0.01) / (Math.log(2) * Math.log(2)) / 8);
+        assertThat(filter.sizeInBytes()).isBetween(optimalBytes, optimalBytes + Long.BYTES);
+    }
+
+    private static BloomFilter filled(int insertions, double falsePositiveRate) {
+        return filled(insertions, falsePositiveRate, insertions);
+    }
+
+    private static BloomFilter filled(int insertions, double falsePositiveRate, int expectedInsertions) {
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        for (int i = 0; i < insertions; i++) {
+            filter.put("post-" + i);
+        }
+        return filter;
+    }
+
+    private static double falsePositiveRate(BloomFilter filter) {
+        int hits = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("other-" + i)) {
+                hits++;
+            }
+        }
+        return (double) hits / PROBES;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HyperLogLogTest {
+
+    /**
+     * The default of app.like-preview.sketch-precision.
+     */
+    private static final int PRECISION = 11;
+
+    /**
+     * Three standard errors (1.04 / sqrt(2^precision)).
+     */
+    private static final double TOLERANCE = 3 * 1.04 / Math.sqrt(1 << PRECISION);
+
+    @Test
+    void estimateIsWithinErrorBoundAcrossCardinalities() {
+        for (int cardinality : new int[]{10, 100, 1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add("user-" + i);
+            }
+
+            assertThat(relativeError(sketch.estimate(), cardinality))
+                    .as("relative error at %d", cardinality)
+                    .isLessThanOrEqualTo(TOLERANCE);
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeTheEstimate() {
+        HyperLogLog once = new HyperLogLog(PRECISION);
+        HyperLogLog repeated = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 5_000; i++) {
+            once.add("user-" + i);
+            for (int r = 0; r < 3; r++) {
+                repeated.add("user-" + i);
+            }
+        }
+
+        assertThat(repeated.estimate()).isEqualTo(once.estimate());
+    }
+
+    @Test
+    void mergingRegistersEstimatesTheUnion() {
+        HyperLogLog union = new HyperLogLog(PRECISION);
+        HyperLogLog merged = new HyperLogLog(PRECISION);
+        // two overlapping shards (0..19999 and 10000..29999), merged register by register
+        for (int i = 0; i < 30_000; i++) {
+            String value = "user-" + i;
+            union.add(value);
+            HyperLogLog.Register register = HyperLogLog.registerOf(value, PRECISION);
+            if (i < 20_000) {
+                merged.merge(register.index(), register.rank());
+            }
+            if (i >= 10_000) {
+                merged.merge(register.index(), register.rank());
+            }
+        }
+
+        assertThat(merged.estimate()).isEqualTo(union.estimate());
+        assertThat(relativeError(merged.estimate(), 30_000)).isLessThanOrEqualTo(TOLERANCE);
+    }
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog(PRECISION).estimate()).isZero();
+    }
+
+    @Test
+    void registerStaysInRange() {
+        for (int i = 0; i < 10_000; i++) {
+            HyperLogLog.Register register = HyperLogLog.registerOf("user-" + i, PRECISION);
+            assertThat(register.index()).isBetween(0, (1 << PRECISION) - 1);
+            assertThat(register.rank()).isBetween(1, 64 - PRECISION + 1);
+        }
+    }
+
+    @Test
+    void rejectsPrecisionOutOfRange() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(17)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double relativeError(long estimate, long actual) {
+        return Math.abs(estimate - actual) / (double) actual;
+    }
+}
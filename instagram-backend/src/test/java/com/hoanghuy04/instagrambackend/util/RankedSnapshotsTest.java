@@ -0,0 +1,76 @@
+package com.hoanghuy04.instagrambackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedSnapshotsTest {
+
+    private final RankedSnapshots<String> snapshots = new RankedSnapshots<>(Function.identity(), Duration.ofMinutes(5));
+
+    @Test
+    void pagesKeepTheirSnapshotAcrossRepublish() {
+        snapshots.publish(List.of("a", "b", "c", "d", "e"));
+        RankedSnapshots.Slice<String> first = snapshots.slice(null, 2, id -> true);
+
+        // "e" jumps to the top and "a" drops to the bottom between pages
+        snapshots.publish(List.of("e", "b", "c", "d", "a"));
+
+        List<String> seen = new ArrayList<>(first.items());
+        String cursor = first.nextCursor();
+        while (cursor != null) {
+            RankedSnapshots.Slice<String> page = snapshots.slice(cursor, 2, id -> true);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        }
+
+        assertThat(seen).containsExactly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    void filteredItemsDoNotShiftLaterPages() {
+        snapshots.publish(List.of("a", "b", "c", "d", "e"));
+
+        RankedSnapshots.Slice<String> first = snapshots.slice(null, 2, id -> !id.equals("b"));
+        RankedSnapshots.Slice<String> second = snapshots.slice(first.nextCursor(), 2, id -> true);
+
+        assertThat(first.items()).containsExactly("a", "c");
+        assertThat(second.items()).containsExactly("d", "e");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void removedItemsAreSkippedInRetainedSnapshots() {
+        snapshots.publish(List.of("a", "b", "c", "d"));
+        RankedSnapshots.Slice<String> first = snapshots.slice(null, 2, id -> true);
+
+        snapshots.remove("c");
+
+        assertThat(snapshots.slice(first.nextCursor(), 2, id -> true).items()).containsExactly("d");
+        assertThat(snapshots.current()).containsExactly("a", "b", "d");
+    }
+
+    @Test
+    void expiredSnapshotResumesAfterTheLastItem() {
+        RankedSnapshots<String> shortLived = new RankedSnapshots<>(Function.identity(), Duration.ZERO);
+        shortLived.publish(List.of("a", "b", "c", "d"));
+        RankedSnapshots.Slice<String> first = shortLived.slice(null, 2, id -> true);
+
+        shortLived.publish(List.of("c", "a", "b", "d"));
+
+        assertThat(shortLived.slice(first.nextCursor(), 2, id -> true).items()).containsExactly("d");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        snapshots.publish(List.of("a", "b"));
+
+        assertThat(snapshots.slice(null, 2, id -> true).nextCursor()).isNull();
+        assertThat(snapshots.slice(null, 5, id -> false).items()).isEmpty();
+    }
+}
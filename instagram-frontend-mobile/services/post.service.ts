@@ -4,11 +4,45 @@ import { API_ENDPOINTS } from '../config/routes';
 import { PaginatedResponse, Post } from '../types';
 import { CreatePostRequest, PostResponse, PostLikeToggleResponse } from '../types/post.type';
 
+// Keyset cursors per list, indexed by page number; an empty cursor asks for the first page
+const pageCursors = new Map<string, string[]>();
+
+// undefined: no cursor was handed out for this page, i.e. the list already ended
+const cursorFor = (key: string, page: number): string | undefined =>
+  page === 0 ? '' : pageCursors.get(key)?.[page];
+
+const endOfList = <T>(page: number, limit: number): PaginatedResponse<T> => ({
+  content: [],
+  pageNumber: page,
+  pageSize: limit,
+  totalElements: 0,
+  totalPages: 0,
+  first: false,
+  last: true,
+  hasNext: false,
+  hasPrevious: page > 0,
+  empty: true,
+  nextCursor: null,
+});
+
+const rememberCursor = (key: string, page: number, nextCursor?: string | null) => {
+  const cursors = page === 0 ? [''] : (pageCursors.get(key) ?? ['']);
+  if (nextCursor) {
+    cursors[page + 1] = nextCursor;
+  }
+  pageCursors.set(key, cursors);
+};
+
 export const postService = {
   getFeed: async (page = 0, limit = 20): Promise<PaginatedResponse<PostResponse>> => {
+    const cursor = cursorFor('feed', page);
+    if (cursor === undefined) {
+      return endOfList(page, limit);
+    }
     const response = await axiosInstance.get(API_ENDPOINTS.FEED, {
-      params: { page, limit },
+      params: { cursor, size: limit },
     });
+    rememberCursor('feed', page, response.data.data.nextCursor);
     return response.data.data;
   },
 
@@ -20,9 +54,14 @@ export const postService = {
   },
 
   getExplorePosts: async (page = 0, limit = 20): Promise<PaginatedResponse<Post>> => {
+    const cursor = cursorFor('explore', page);
+    if (cursor === undefined) {
+      return endOfList(page, limit);
+    }
     const response = await axiosInstance.get(API_ENDPOINTS.EXPLORE, {
-      params: { page, limit },
+      params: { cursor, size: limit },
     });
+    rememberCursor('explore', page, response.data.data.nextCursor);
     const mappedContent = response.data.data.content.map((post: any) => ({
       ...post,
     }));
@@ -47,9 +86,15 @@ export const postService = {
   },
 
   getUserPosts: async (userId: string, page = 0, limit = 20): Promise<PaginatedResponse<PostResponse>> => {
+    const key = `posts:${userId}`;
+    const cursor = cursorFor(key, page);
+    if (cursor === undefined) {
+      return endOfList(page, limit);
+    }
     const response = await axiosInstance.get(API_ENDPOINTS.USER_POSTS(userId), {
-      params: { page, size: limit },
+      params: { cursor, size: limit },
     });
+    rememberCursor(key, page, response.data.data.nextCursor);
     // Filter for FEED type posts only
     const allPosts = response.data.data;
     const feedPosts = allPosts.content.filter((post: Post) => post.type === 'FEED');
@@ -60,9 +105,15 @@ export const postService = {
   },
 
   getUserReels: async (userId: string, page = 0, limit = 20): Promise<PaginatedResponse<Post>> => {
+    const key = `reels:${userId}`;
+    const cursor = cursorFor(key, page);
+    if (cursor === undefined) {
+      return endOfList(page, limit);
+    }
     const response = await axiosInstance.get(API_ENDPOINTS.USER_POSTS(userId), {
-      params: { page, size: limit },
+      params: { cursor, size: limit },
     });
+    rememberCursor(key, page, response.data.data.nextCursor);
     // Filter for REEL type posts only
     const allPosts = response.data.data;
     const reels = allPosts.content.filter((post: Post) => post.type === 'REEL');
@@ -16,6 +16,7 @@ export interface PaginatedResponse<T = any> {
   hasNext: boolean;
   hasPrevious: boolean;
   empty: boolean;
+  nextCursor?: string | null;
 }
 
 export interface ApiError {